@@ -0,0 +1,35 @@
+package com.poundsaver.ai.config;
+
+import com.poundsaver.shared.enums.Retailer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Browser settings for {@code AIDataCollectionAgent}. The fast-mode block mirrors
+ * {@code scraper.fast-mode} in scraper-service, which this service cannot depend on.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ai.agent")
+public class AgentProperties {
+
+    private FastMode fastMode = new FastMode();
+
+    @Data
+    public static class FastMode {
+        private boolean enabled = true;
+        private List<String> blockedResourceTypes = new ArrayList<>(List.of("image", "media", "font"));
+        private List<String> blockedHosts = new ArrayList<>();
+        private Map<Retailer, FastMode> retailers = new EnumMap<>(Retailer.class);
+
+        public FastMode policyFor(Retailer retailer) {
+            return retailers.getOrDefault(retailer, this);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.poundsaver.ai.service;
 
 import com.microsoft.playwright.*;
+import com.poundsaver.ai.config.AgentProperties;
 import com.poundsaver.shared.dto.ProductDTO;
 import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -20,6 +25,8 @@ import java.util.regex.Pattern;
 public class AIDataCollectionAgent {
 
     private final ChatClient chatClient;
+    private final AgentProperties.FastMode fastMode;
+    private final MeterRegistry meterRegistry;
     private final Playwright playwright;
     private final Random random = new Random();
 
@@ -61,8 +68,10 @@ public class AIDataCollectionAgent {
         Return a structured JSON response with insights and recommendations.
         """);
 
-    public AIDataCollectionAgent(ChatClient chatClient) {
+    public AIDataCollectionAgent(ChatClient chatClient, AgentProperties properties, MeterRegistry meterRegistry) {
         this.chatClient = chatClient;
+        this.fastMode = properties.getFastMode();
+        this.meterRegistry = meterRegistry;
         this.playwright = Playwright.create();
     }
 
@@ -100,6 +109,7 @@ public class AIDataCollectionAgent {
     private CompletableFuture<List<ProductDTO>> collectRetailerDataWithAI(Retailer retailer, String searchQuery) {
         return CompletableFuture.supplyAsync(() -> {
             Browser browser = null;
+            TrafficStats stats = null;
             try {
                 browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
                         .setHeadless(true)
@@ -113,6 +123,7 @@ public class AIDataCollectionAgent {
                 BrowserContext context = browser.newContext(new Browser.NewContextOptions()
                         .setUserAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
                         .setViewportSize(1920, 1080));
+                stats = blockNonEssentialResources(context, retailer);
 
                 Page page = context.newPage();
 
@@ -141,10 +152,120 @@ public class AIDataCollectionAgent {
                 if (browser != null) {
                     browser.close();
                 }
+                if (stats != null) {
+                    recordTraffic(stats);
+                }
             }
         });
     }
 
+    /**
+     * Abort the resource types and tracker hosts configured under {@code ai.agent.fast-mode};
+     * extraction only needs the page text
+     */
+    private TrafficStats blockNonEssentialResources(BrowserContext context, Retailer retailer) {
+        AgentProperties.FastMode policy = fastMode.policyFor(retailer);
+        TrafficStats stats = new TrafficStats(retailer, policy.isEnabled());
+
+        context.onResponse(response -> stats.transferred(response.headers().get("content-length")));
+
+        if (policy.isEnabled()) {
+            Set<String> blockedTypes = new HashSet<>(policy.getBlockedResourceTypes());
+            List<String> blockedHosts = policy.getBlockedHosts();
+            context.route("**/*", route -> {
+                Request request = route.request();
+                if (blockedTypes.contains(request.resourceType()) || isBlockedHost(request.url(), blockedHosts)) {
+                    stats.blocked(request.resourceType());
+                    route.abort("blockedbyclient");
+                } else {
+                    route.fallback();
+                }
+            });
+        }
+        return stats;
+    }
+
+    private static boolean isBlockedHost(String url, List<String> blockedHosts) {
+        if (blockedHosts.isEmpty()) {
+            return false;
+        }
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return false;
+            }
+            String lower = host.toLowerCase(Locale.ROOT);
+            return blockedHosts.stream().anyMatch(blocked -> lower.equals(blocked) || lower.endsWith("." + blocked));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Same meters as scraper-service's fast mode, so both services chart on one dashboard
+     */
+    private void recordTraffic(TrafficStats stats) {
+        String retailer = stats.retailer.name();
+        String fastModeTag = String.valueOf(stats.fastMode);
+
+        DistributionSummary.builder("scraper_page_transfer_bytes")
+                .description("Response bytes downloaded per scrape job, from Content-Length")
+                .baseUnit("bytes")
+                .tags("retailer", retailer, "fast_mode", fastModeTag)
+                .register(meterRegistry)
+                .record(stats.bytesTransferred);
+        DistributionSummary.builder("scraper_page_requests")
+                .description("Requests completed per scrape job")
+                .tags("retailer", retailer, "fast_mode", fastModeTag)
+                .register(meterRegistry)
+                .record(stats.requestsCompleted);
+        DistributionSummary.builder("scraper_blocked_requests")
+                .description("Requests aborted by the fast-mode policy per scrape job")
+                .tags("retailer", retailer)
+                .register(meterRegistry)
+                .record(stats.requestsBlocked);
+
+        stats.blockedByType.forEach((type, count) -> Counter.builder("scraper_blocked_requests_total")
+                .description("Requests aborted by the fast-mode policy")
+                .tags("retailer", retailer, "resource_type", type)
+                .register(meterRegistry)
+                .increment(count));
+    }
+
+    /**
+     * Traffic counters for one collection. Route and response handlers run on the thread
+     * driving the page, so plain fields are enough.
+     */
+    private static class TrafficStats {
+        private final Retailer retailer;
+        private final boolean fastMode;
+        private final Map<String, Long> blockedByType = new HashMap<>();
+        private long bytesTransferred;
+        private long requestsCompleted;
+        private long requestsBlocked;
+
+        private TrafficStats(Retailer retailer, boolean fastMode) {
+            this.retailer = retailer;
+            this.fastMode = fastMode;
+        }
+
+        private void transferred(String contentLength) {
+            requestsCompleted++;
+            if (contentLength != null) {
+                try {
+                    bytesTransferred += Long.parseLong(contentLength.trim());
+                } catch (NumberFormatException ignored) {
+                    // chunked or malformed length, count the request only
+                }
+            }
+        }
+
+        private void blocked(String resourceType) {
+            requestsBlocked++;
+            blockedByType.merge(resourceType, 1L, Long::sum);
+        }
+    }
+
     /**
      * Extract raw product data from page using multiple selectors
      */
@@ -11,6 +11,14 @@ public class GatewayConfig {
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
         return builder.routes()
+                // Event streams skip the circuit breaker, whose time limiter would cut them off;
+                // the write filter flushes each event as it arrives for text/event-stream
+                .route("scraper-service-streams", r -> r
+                        .order(-1)
+                        .path("/api/v1/scraper/scrape/stream", "/api/v1/scraper/jobs/events")
+                        .filters(f -> f.stripPrefix(1))
+                        .uri("http://localhost:8081"))
+
                 .route("scraper-service", r -> r
                         .path("/api/v1/scraper/**")
                         .filters(f -> f
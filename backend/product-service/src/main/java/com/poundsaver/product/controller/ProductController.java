@@ -1,6 +1,7 @@
 package com.poundsaver.product.controller;
 
 import com.poundsaver.product.entity.Product;
+import com.poundsaver.product.kafka.SearchEventPublisher;
 import com.poundsaver.product.service.ProductService;
 import com.poundsaver.shared.dto.ProductDTO;
 import org.springframework.http.ResponseEntity;
@@ -15,14 +16,17 @@ import java.util.stream.Collectors;
 public class ProductController {
 
     private final ProductService productService;
+    private final SearchEventPublisher searchEventPublisher;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, SearchEventPublisher searchEventPublisher) {
         this.productService = productService;
+        this.searchEventPublisher = searchEventPublisher;
     }
 
     @GetMapping("/search")
     public Mono<ResponseEntity<List<ProductDTO>>> searchProducts(@RequestParam String query) {
         return Mono.fromCallable(() -> productService.searchProducts(query))
+                .doOnNext(results -> searchEventPublisher.publish(query, results.size()))
                 .map(ResponseEntity::ok);
     }
 
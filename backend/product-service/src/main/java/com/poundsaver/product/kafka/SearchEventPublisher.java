@@ -0,0 +1,55 @@
+package com.poundsaver.product.kafka;
+
+import com.poundsaver.shared.dto.SearchEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Publishes user searches to {@value #TOPIC} so scraper-service can keep popular queries
+ * fresh. Fire-and-forget: sends happen off the request thread, and a failed send is logged
+ * and never affects the search itself.
+ */
+@Component
+public class SearchEventPublisher {
+
+    public static final String TOPIC = "search-queries";
+
+    private static final Logger log = LoggerFactory.getLogger(SearchEventPublisher.class);
+
+    private final KafkaTemplate<String, SearchEventDTO> kafkaTemplate;
+
+    public SearchEventPublisher(KafkaTemplate<String, SearchEventDTO> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void publish(String query, int resultCount) {
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        SearchEventDTO event = SearchEventDTO.builder()
+                .query(normalized)
+                .resultCount(resultCount)
+                .searchedAt(LocalDateTime.now())
+                .build();
+        // send() can block on broker metadata, so keep it off the event loop
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                kafkaTemplate.send(TOPIC, normalized, event)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) {
+                                log.debug("Failed to publish search event for '{}': {}", normalized, ex.getMessage());
+                            }
+                        });
+            } catch (Exception e) {
+                log.debug("Failed to publish search event for '{}': {}", normalized, e.getMessage());
+            }
+        });
+    }
+}
@@ -4,12 +4,15 @@ import com.poundsaver.product.entity.Product;
 import com.poundsaver.product.repository.ProductRepository;
 import com.poundsaver.shared.dto.ProductDTO;
 import com.poundsaver.shared.exception.ProductNotFoundException;
+import com.poundsaver.shared.util.ProductIdentity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -26,12 +29,29 @@ public class ProductService {
         this.productRepository = productRepository;
     }
 
+    /**
+     * Upserts by product ID: a product seen before is updated in place rather than inserted
+     * again. Products without an ID get the deterministic one from {@link ProductIdentity}.
+     */
     @Transactional
+    @CachePut(value = "products", key = "#result.id")
     public Product saveProduct(ProductDTO productDTO) {
         if (productDTO == null) {
             throw new IllegalArgumentException("ProductDTO cannot be null");
         }
-        Product product = mapToEntity(productDTO);
+        if (productDTO.getId() == null || productDTO.getId().isBlank()) {
+            ProductIdentity.assign(productDTO);
+        }
+
+        Product product = productRepository.findById(productDTO.getId())
+                .map(existing -> {
+                    applyScrape(existing, productDTO);
+                    return existing;
+                })
+                .orElseGet(() -> mapToEntity(productDTO));
+        if (product.getLastUpdated() == null) {
+            product.setLastUpdated(LocalDateTime.now());
+        }
         return productRepository.save(product);
     }
 
@@ -110,6 +130,27 @@ public class ProductService {
                 .build();
     }
 
+    private void applyScrape(Product existing, ProductDTO dto) {
+        existing.setName(dto.getName());
+        existing.setNormalizedName(dto.getNormalizedName());
+        existing.setBrand(dto.getBrand());
+        existing.setCategory(dto.getCategory());
+        existing.setPrice(dto.getPrice());
+        existing.setPricePerUnit(dto.getPricePerUnit());
+        existing.setUnit(dto.getUnit());
+        existing.setLoyaltyPrice(dto.getLoyaltyPrice());
+        existing.setLoyaltyScheme(dto.getLoyaltyScheme());
+        existing.setQuantity(dto.getQuantity());
+        existing.setSize(dto.getSize());
+        existing.setInStock(dto.getInStock());
+        existing.setImageUrl(dto.getImageUrl());
+        existing.setProductUrl(dto.getProductUrl());
+        existing.setEan(dto.getEan() != null ? dto.getEan() : existing.getEan());
+        existing.setScrapedAt(dto.getScrapedAt() != null ? dto.getScrapedAt() : existing.getScrapedAt());
+        existing.setLastUpdated(dto.getLastUpdated() != null ? dto.getLastUpdated() : LocalDateTime.now());
+        existing.setMatchConfidence(dto.getMatchConfidence());
+    }
+
     private ProductDTO mapToDTO(Product entity) {
         return ProductDTO.builder()
                 .id(entity.getId())
@@ -0,0 +1,179 @@
+package com.poundsaver.simulator;
+
+import com.poundsaver.shared.enums.Retailer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * One retailer's generated product range. Products are built from brand, variant, item and
+ * pack-size word lists with a seeded {@link Random}, so the same settings always produce the
+ * same catalogue and prices, and each retailer gets its own brand mix and price level. Search
+ * matches products containing every query word, falling back to any word.
+ */
+final class Catalogue {
+
+    private static final String[] BRANDS = {
+        "Heinz", "Kellogg's", "Warburtons", "Cathedral City", "Lurpak", "Muller", "Tropicana", "Walkers",
+        "Cadbury", "Fairy", "Andrex", "Yorkshire Tea", "Nescafe", "Hovis", "Arla", "Birds Eye", "McVitie's"
+    };
+    private static final String[] VARIANTS = {
+        "", "Organic", "Free Range", "Finest", "Everyday", "Light", "Original", "Family", "Reduced Fat", "British"
+    };
+    private static final String[] ITEMS = {
+        "Milk", "Bread", "Eggs", "Butter", "Cheddar Cheese", "Bananas", "Apples", "Chicken Breast", "Pasta",
+        "Basmati Rice", "Instant Coffee", "Tea Bags", "Baked Beans", "Cornflakes", "Greek Yoghurt",
+        "Orange Juice", "Ready Salted Crisps", "Milk Chocolate", "Washing Up Liquid", "Toilet Roll",
+        "Porridge Oats", "Peas", "Tomato Ketchup", "Digestive Biscuits", "Sliced Ham"
+    };
+    private static final String[] SIZES = {
+        "250g", "400g", "500g", "1kg", "2kg", "500ml", "1L", "2L", "4 Pack", "6 Pack", "12 Pack"
+    };
+    private static final double[] SIZE_FACTORS = {0.6, 0.8, 1.0, 1.8, 3.2, 0.9, 1.5, 2.6, 1.7, 2.4, 4.2};
+
+    private final Retailer retailer;
+    private final List<Product> products;
+    private final Map<String, int[]> index;
+
+    Catalogue(Retailer retailer, int size, long seed) {
+        this.retailer = retailer;
+        Random random = new Random(seed * 31 + retailer.ordinal());
+        double priceLevel = priceLevel(retailer);
+        String ownBrand = retailer.getDisplayName();
+
+        List<Product> generated = new ArrayList<>(size);
+        Map<String, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String brand = random.nextInt(3) == 0 ? ownBrand : BRANDS[random.nextInt(BRANDS.length)];
+            String variant = VARIANTS[random.nextInt(VARIANTS.length)];
+            int item = random.nextInt(ITEMS.length);
+            int pack = random.nextInt(SIZES.length);
+            String name = (brand + " " + variant + " " + ITEMS[item] + " " + SIZES[pack]).replaceAll(" +", " ");
+
+            // Item base price from its position, spread by brand, pack size and retailer
+            double base = 0.55 + (item % 7) * 0.45 + random.nextDouble() * 0.9;
+            double factor = (brand.equals(ownBrand) ? 0.75 : 1.0) * SIZE_FACTORS[pack] * priceLevel;
+            BigDecimal price = pounds(base * factor);
+            BigDecimal loyaltyPrice = random.nextInt(8) == 0 ? pounds(base * factor * 0.85) : null;
+
+            String id = retailer.name().toLowerCase(Locale.ROOT) + "-" + i;
+            generated.add(new Product(id, name, price, loyaltyPrice));
+            for (String word : words(name)) {
+                postings.computeIfAbsent(word, w -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.products = List.copyOf(generated);
+        this.index = new HashMap<>();
+        postings.forEach((word, ids) -> index.put(word, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    Retailer retailer() {
+        return retailer;
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    /**
+     * One page of results for {@code query}; {@code page} is 1-based.
+     */
+    Results search(String query, int page, int pageSize) {
+        List<String> words = words(query);
+        int[] matches = all(words);
+        if (matches.length == 0) {
+            matches = any(words);
+        }
+        int pages = Math.max(1, (matches.length + pageSize - 1) / pageSize);
+        int from = Math.min(matches.length, (Math.max(1, page) - 1) * pageSize);
+        int to = Math.min(matches.length, from + pageSize);
+        List<Product> hits = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            hits.add(products.get(matches[i]));
+        }
+        return new Results(hits, matches.length, Math.min(Math.max(1, page), pages), pages);
+    }
+
+    private int[] all(List<String> words) {
+        int[] result = null;
+        for (String word : words) {
+            int[] posting = index.getOrDefault(word, new int[0]);
+            result = result == null ? posting : intersect(result, posting);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result == null ? new int[0] : result;
+    }
+
+    private int[] any(List<String> words) {
+        Set<Integer> union = new LinkedHashSet<>();
+        for (String word : words) {
+            for (int id : index.getOrDefault(word, new int[0])) {
+                union.add(id);
+            }
+        }
+        return union.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                out[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static BigDecimal pounds(double value) {
+        return BigDecimal.valueOf(Math.max(0.10, value)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static double priceLevel(Retailer retailer) {
+        return switch (retailer) {
+            case LIDL, BM, HOTDEALS -> 0.85;
+            case ASDA, ICELAND, WHITE_ROSE -> 0.95;
+            case COSTCO -> 1.6;
+            case TESCO -> 1.0;
+        };
+    }
+
+    record Product(String id, String name, BigDecimal price, BigDecimal loyaltyPrice) {
+    }
+
+    record Results(List<Product> products, int total, int page, int pages) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.poundsaver.simulator;
+
+import com.poundsaver.shared.enums.Retailer;
+
+import java.math.BigDecimal;
+
+/**
+ * Renders search result pages in the markup each retailer's scraper strategy selects on, with
+ * a next-page link while more results remain. Retailers whose strategy has no selectors get a
+ * generic product-card grid.
+ */
+final class ResultPageRenderer {
+
+    private ResultPageRenderer() {
+    }
+
+    /**
+     * {@code nextHref} is a relative link to the following page, or {@code null} on the last.
+     */
+    static String results(Retailer retailer, String query, Catalogue.Results results, String nextHref) {
+        StringBuilder html = new StringBuilder(4096 + results.products().size() * 400);
+        open(html, retailer, query);
+        if (results.products().isEmpty()) {
+            html.append("<div class=\"no-results\">No results found for \u201c").append(escape(query))
+                    .append("\u201d</div>\n");
+        } else {
+            html.append("<p class=\"results-count\">").append(results.total()).append(" products</p>\n");
+            switch (retailer) {
+                case TESCO -> tesco(html, results);
+                case ASDA -> asda(html, results);
+                case ICELAND -> iceland(html, results);
+                case WHITE_ROSE -> whiteRose(html, results);
+                case HOTDEALS -> hotDeals(html, results);
+                default -> generic(html, results);
+            }
+            pagination(html, results, nextHref);
+        }
+        return close(html);
+    }
+
+    /**
+     * A bot challenge in the shape the scraper recognises: a captcha iframe for the browser
+     * and a JavaScript challenge marker for plain HTTP fetches.
+     */
+    static String captcha(Retailer retailer) {
+        StringBuilder html = new StringBuilder();
+        open(html, retailer, null);
+        html.append("<div id=\"challenge-form\"><h1>Checking your browser</h1>\n")
+                .append("<iframe src=\"/captcha/challenge\" title=\"challenge\"></iframe></div>\n")
+                .append("<script>window._cf_chl_opt={cType:'managed'};</script>\n");
+        return close(html);
+    }
+
+    private static void tesco(StringBuilder html, Catalogue.Results results) {
+        html.append("<ul class=\"product-list\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<li class=\"product-list--list-item\"><div class=\"product-tile\">")
+                    .append("<img class=\"product-image\" src=\"/images/").append(product.id()).append(".jpg\" alt=\"\">")
+                    .append("<a class=\"product-tile--title\" href=\"/groceries/en-GB/products/").append(product.id())
+                    .append("\">").append(escape(product.name())).append("</a>")
+                    .append("<p class=\"price-per-sellable-unit\"><span class=\"currency\">\u00a3</span>")
+                    .append("<span class=\"value\">").append(product.price().toPlainString()).append("</span></p>");
+            if (product.loyaltyPrice() != null) {
+                html.append("<span class=\"offer-text\">\u00a3").append(product.loyaltyPrice().toPlainString())
+                        .append(" Clubcard Price</span>");
+            }
+            html.append("</div></li>\n");
+        }
+        html.append("</ul>\n");
+    }
+
+    private static void asda(StringBuilder html, Catalogue.Results results) {
+        html.append("<div class=\"co-product-list\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<div class=\"co-product\">")
+                    .append("<img class=\"co-product__image\" src=\"/images/").append(product.id())
+                    .append(".jpg\" alt=\"\">")
+                    .append("<a class=\"co-product__anchor\" href=\"/product/").append(product.id()).append("\">")
+                    .append(escape(product.name())).append("</a>")
+                    .append("<strong class=\"co-product__price\">").append(pounds(product.price())).append("</strong>")
+                    .append("</div>\n");
+        }
+        html.append("</div>\n");
+    }
+
+    private static void iceland(StringBuilder html, Catalogue.Results results) {
+        html.append("<div class=\"search-results\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<div class=\"product-item\">")
+                    .append("<a class=\"product-link\" href=\"/p/").append(product.id()).append("\">")
+                    .append("<img class=\"product-image\" src=\"/images/").append(product.id()).append(".jpg\" alt=\"\">")
+                    .append("</a><h3 class=\"product-title\">").append(escape(product.name())).append("</h3>")
+                    .append("<span class=\"price\">").append(pounds(product.price())).append("</span>")
+                    .append("</div>\n");
+        }
+        html.append("</div>\n");
+    }
+
+    private static void whiteRose(StringBuilder html, Catalogue.Results results) {
+        html.append("<ul class=\"products\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<li class=\"product\">")
+                    .append("<img class=\"product-image\" src=\"/media/").append(product.id()).append(".jpg\" alt=\"\">")
+                    .append("<a class=\"product-name\" href=\"/product/").append(product.id()).append("\">")
+                    .append(escape(product.name())).append("</a>")
+                    .append("<p class=\"product-price\">").append(pounds(product.price())).append("</p>")
+                    .append("</li>\n");
+        }
+        html.append("</ul>\n");
+    }
+
+    private static void hotDeals(StringBuilder html, Catalogue.Results results) {
+        html.append("<section class=\"threads\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<article class=\"thread\">")
+                    .append("<h3 class=\"thread-title\"><a href=\"/deals/").append(product.id()).append("\">")
+                    .append(escape(product.name())).append("</a></h3>")
+                    .append("<span class=\"price\">").append(pounds(product.price())).append("</span>")
+                    .append("</article>\n");
+        }
+        html.append("</section>\n");
+    }
+
+    private static void generic(StringBuilder html, Catalogue.Results results) {
+        html.append("<div class=\"product-grid\">\n");
+        for (Catalogue.Product product : results.products()) {
+            html.append("<div class=\"product-card\">")
+                    .append("<a href=\"/product/").append(product.id()).append("\">")
+                    .append("<img src=\"/images/").append(product.id()).append(".jpg\" alt=\"\"></a>")
+                    .append("<div class=\"product-title\">").append(escape(product.name())).append("</div>")
+                    .append("<div class=\"price\">").append(pounds(product.price())).append("</div>")
+                    .append("</div>\n");
+        }
+        html.append("</div>\n");
+    }
+
+    private static void pagination(StringBuilder html, Catalogue.Results results, String nextHref) {
+        html.append("<nav class=\"pagination\"><span class=\"pagination--current\">Page ").append(results.page())
+                .append(" of ").append(results.pages()).append("</span>");
+        if (nextHref != null) {
+            html.append("<a rel=\"next\" class=\"pagination--button co-pagination__arrow--right\" href=\"")
+                    .append(escape(nextHref)).append("\">Next</a>");
+        }
+        html.append("</nav>\n");
+    }
+
+    private static void open(StringBuilder html, Retailer retailer, String query) {
+        html.append("<!DOCTYPE html>\n<html lang=\"en-GB\"><head><meta charset=\"utf-8\"><title>");
+        if (query != null) {
+            html.append(escape(query)).append(" | ");
+        }
+        html.append(escape(retailer.getDisplayName())).append("</title></head>\n<body>\n")
+                .append("<header class=\"site-header\"><a href=\"/\">").append(escape(retailer.getDisplayName()))
+                .append("</a></header>\n<main>\n");
+    }
+
+    private static String close(StringBuilder html) {
+        return html.append("</main>\n</body></html>\n").toString();
+    }
+
+    private static String pounds(BigDecimal price) {
+        return "\u00a3" + price.toPlainString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
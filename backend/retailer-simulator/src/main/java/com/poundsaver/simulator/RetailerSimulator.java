@@ -0,0 +1,301 @@
+package com.poundsaver.simulator;
+
+import com.poundsaver.shared.enums.Retailer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embeddable stand-in for the retailers' search pages, built on the JDK HTTP server so load
+ * and soak tests need nothing else running. Each {@link Retailer} is served under its own
+ * path prefix, {@code /<retailer>/...} in lower case, and answers the search URLs its scraper
+ * strategy builds: the query is read from {@code query} or {@code q}, or from the segment
+ * after {@code /search/}, and {@code page} selects a results page. Every search is delayed by
+ * a log-normal latency and may be turned into a 503, a 429 block or a captcha page at the
+ * configured rates. {@code GET /stats} reports responses per retailer and outcome.
+ *
+ * <pre>
+ * try (RetailerSimulator simulator = new RetailerSimulator(SimulatorSettings.builder().port(0).build())) {
+ *     simulator.start();
+ *     String tesco = simulator.baseUrl(Retailer.TESCO) + "/groceries/en-GB/search?query=milk";
+ * }
+ * </pre>
+ */
+public class RetailerSimulator implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(RetailerSimulator.class.getName());
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    public enum Outcome {
+        OK, EMPTY, ERROR, BLOCKED, CAPTCHA
+    }
+
+    private final SimulatorSettings settings;
+    private final Map<Retailer, Catalogue> catalogues = new EnumMap<>(Retailer.class);
+    private final Map<Retailer, Map<Outcome, LongAdder>> served = new EnumMap<>(Retailer.class);
+    private final double latencyMu;
+    private final double latencySigma;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public RetailerSimulator(SimulatorSettings settings) {
+        this.settings = settings;
+        for (Retailer retailer : Retailer.values()) {
+            catalogues.put(retailer, new Catalogue(retailer, settings.getCatalogueSize(), settings.getSeed()));
+            Map<Outcome, LongAdder> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, new LongAdder());
+            }
+            served.put(retailer, counts);
+        }
+        double median = Math.max(0, settings.getMedianLatency().toNanos());
+        double p99 = Math.max(median, settings.getP99Latency().toNanos());
+        this.latencyMu = median > 0 ? Math.log(median) : Double.NEGATIVE_INFINITY;
+        this.latencySigma = median > 0 ? Math.log(p99 / median) / Z_99 : 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        RetailerSimulator simulator = new RetailerSimulator(SimulatorSettings.fromArgs(args));
+        simulator.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close, "simulator-shutdown"));
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(settings.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "simulator-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(settings.getPort()), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.log(System.Logger.Level.INFO, "Retailer simulator listening on port {0} with {1} products per retailer",
+                String.valueOf(getPort()), String.valueOf(settings.getCatalogueSize()));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Simulator is not running");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Where {@code retailer}'s pages are served; append the path its real site would use.
+     */
+    public String baseUrl(Retailer retailer) {
+        return "http://localhost:" + getPort() + "/" + retailer.name().toLowerCase(Locale.ROOT);
+    }
+
+    public long served(Retailer retailer, Outcome outcome) {
+        return served.get(retailer).get(outcome).sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+            if (path.equals("/health")) {
+                respond(exchange, 200, "text/plain", "ok");
+                return;
+            }
+            if (path.equals("/stats")) {
+                respond(exchange, 200, "application/json", stats());
+                return;
+            }
+
+            String[] segments = path.split("/", 3);
+            Retailer retailer = segments.length > 1 ? retailer(segments[1]) : null;
+            String rest = segments.length > 2 ? "/" + segments[2] : "/";
+            Map<String, String> params = params(uri.getRawQuery());
+            String query = query(rest, params);
+            if (retailer == null || query == null) {
+                respond(exchange, 404, "text/plain", "Not a simulated search page: " + path);
+                return;
+            }
+            search(exchange, retailer, query, params);
+        } catch (RuntimeException e) {
+            log.log(System.Logger.Level.WARNING, "Simulator request failed", e);
+        }
+    }
+
+    private void search(HttpExchange exchange, Retailer retailer, String query, Map<String, String> params)
+            throws IOException {
+        sleep(latencyNanos());
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < settings.getErrorRate()) {
+            count(retailer, Outcome.ERROR);
+            respond(exchange, 503, "text/html; charset=utf-8", "<html><body><h1>Service Unavailable</h1></body></html>");
+            return;
+        }
+        if (random.nextDouble() < settings.getBlockRate()) {
+            count(retailer, Outcome.BLOCKED);
+            exchange.getResponseHeaders().set("Retry-After", "30");
+            respond(exchange, 429, "text/html; charset=utf-8", "<html><body><h1>Too Many Requests</h1></body></html>");
+            return;
+        }
+        if (random.nextDouble() < settings.getCaptchaRate()) {
+            count(retailer, Outcome.CAPTCHA);
+            respond(exchange, 200, "text/html; charset=utf-8", ResultPageRenderer.captcha(retailer));
+            return;
+        }
+
+        int page = parsePage(params.get("page"));
+        Catalogue.Results results = catalogues.get(retailer).search(query, page, settings.getPageSize());
+        String next = results.page() < results.pages() ? nextHref(params, results.page() + 1) : null;
+        count(retailer, results.products().isEmpty() ? Outcome.EMPTY : Outcome.OK);
+        respond(exchange, 200, "text/html; charset=utf-8", ResultPageRenderer.results(retailer, query, results, next));
+    }
+
+    private long latencyNanos() {
+        if (latencySigma == 0 && Double.isInfinite(latencyMu)) {
+            return 0;
+        }
+        return (long) Math.exp(latencyMu + latencySigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void count(Retailer retailer, Outcome outcome) {
+        served.get(retailer).get(outcome).increment();
+    }
+
+    private String stats() {
+        StringBuilder json = new StringBuilder("{");
+        served.forEach((retailer, counts) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(retailer.name()).append("\":{");
+            StringBuilder entries = new StringBuilder();
+            counts.forEach((outcome, count) -> {
+                if (entries.length() > 0) {
+                    entries.append(',');
+                }
+                entries.append('"').append(outcome.name().toLowerCase(Locale.ROOT)).append("\":").append(count.sum());
+            });
+            json.append(entries).append('}');
+        });
+        return json.append('}').toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Retailer retailer(String segment) {
+        for (Retailer retailer : Retailer.values()) {
+            if (retailer.name().equalsIgnoreCase(segment)) {
+                return retailer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The search terms, from {@code ?query=}, {@code ?q=} or a {@code /search/<terms>} path.
+     */
+    private static String query(String path, Map<String, String> params) {
+        if (params.containsKey("query")) {
+            return params.get("query");
+        }
+        if (params.containsKey("q")) {
+            return params.get("q");
+        }
+        int search = path.indexOf("/search/");
+        if (search >= 0 && search + "/search/".length() < path.length()) {
+            return path.substring(search + "/search/".length());
+        }
+        return null;
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    private static String nextHref(Map<String, String> params, int page) {
+        Map<String, String> next = new LinkedHashMap<>(params);
+        next.put("page", Integer.toString(page));
+        StringBuilder href = new StringBuilder("?");
+        next.forEach((name, value) -> {
+            if (href.length() > 1) {
+                href.append('&');
+            }
+            href.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return href.toString();
+    }
+
+    private static int parsePage(String page) {
+        if (page == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(page));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.poundsaver.simulator;
+
+import java.time.Duration;
+
+/**
+ * Knobs for a {@link RetailerSimulator}. Latency is log-normal, fitted to {@code medianLatency}
+ * and {@code p99Latency}. The rates are per search request and are drawn independently in
+ * the order error, block, captcha. Every value can be set from the command line as
+ * {@code --name=value}, with durations in milliseconds.
+ */
+public final class SimulatorSettings {
+
+    private final int port;
+    private final int threads;
+    private final int catalogueSize;
+    private final int pageSize;
+    private final Duration medianLatency;
+    private final Duration p99Latency;
+    private final double errorRate;
+    private final double blockRate;
+    private final double captchaRate;
+    private final long seed;
+
+    private SimulatorSettings(Builder builder) {
+        this.port = builder.port;
+        this.threads = builder.threads;
+        this.catalogueSize = builder.catalogueSize;
+        this.pageSize = builder.pageSize;
+        this.medianLatency = builder.medianLatency;
+        this.p99Latency = builder.p99Latency;
+        this.errorRate = builder.errorRate;
+        this.blockRate = builder.blockRate;
+        this.captchaRate = builder.captchaRate;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SimulatorSettings fromArgs(String[] args) {
+        Builder builder = builder();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "port" -> builder.port(Integer.parseInt(value));
+                case "threads" -> builder.threads(Integer.parseInt(value));
+                case "catalogue-size" -> builder.catalogueSize(Integer.parseInt(value));
+                case "page-size" -> builder.pageSize(Integer.parseInt(value));
+                case "median-latency-ms" -> builder.medianLatency(Duration.ofMillis(Long.parseLong(value)));
+                case "p99-latency-ms" -> builder.p99Latency(Duration.ofMillis(Long.parseLong(value)));
+                case "error-rate" -> builder.errorRate(Double.parseDouble(value));
+                case "block-rate" -> builder.blockRate(Double.parseDouble(value));
+                case "captcha-rate" -> builder.captchaRate(Double.parseDouble(value));
+                case "seed" -> builder.seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown simulator setting: " + name);
+            }
+        }
+        return builder.build();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getCatalogueSize() {
+        return catalogueSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public Duration getMedianLatency() {
+        return medianLatency;
+    }
+
+    public Duration getP99Latency() {
+        return p99Latency;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getBlockRate() {
+        return blockRate;
+    }
+
+    public double getCaptchaRate() {
+        return captchaRate;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public static final class Builder {
+        private int port = 8099;
+        private int threads = 256;
+        private int catalogueSize = 5_000;
+        private int pageSize = 24;
+        private Duration medianLatency = Duration.ofMillis(150);
+        private Duration p99Latency = Duration.ofMillis(1_200);
+        private double errorRate = 0.01;
+        private double blockRate = 0.0;
+        private double captchaRate = 0.0;
+        private long seed = 42L;
+
+        private Builder() {
+        }
+
+        /**
+         * Zero picks a free port, which {@link RetailerSimulator#getPort()} reports once started.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder catalogueSize(int catalogueSize) {
+            this.catalogueSize = catalogueSize;
+            return this;
+        }
+
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Builder medianLatency(Duration medianLatency) {
+            this.medianLatency = medianLatency;
+            return this;
+        }
+
+        public Builder p99Latency(Duration p99Latency) {
+            this.p99Latency = p99Latency;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder blockRate(double blockRate) {
+            this.blockRate = blockRate;
+            return this;
+        }
+
+        public Builder captchaRate(double captchaRate) {
+            this.captchaRate = captchaRate;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SimulatorSettings build() {
+            if (threads < 1 || catalogueSize < 1 || pageSize < 1) {
+                throw new IllegalArgumentException("threads, catalogue-size and page-size must be positive");
+            }
+            if (p99Latency.compareTo(medianLatency) < 0) {
+                throw new IllegalArgumentException("p99 latency must not be below the median");
+            }
+            for (double rate : new double[]{errorRate, blockRate, captchaRate}) {
+                if (rate < 0 || rate > 1) {
+                    throw new IllegalArgumentException("Rates must be between 0 and 1");
+                }
+            }
+            return new SimulatorSettings(this);
+        }
+    }
+}
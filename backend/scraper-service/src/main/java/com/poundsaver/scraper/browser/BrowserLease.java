@@ -0,0 +1,44 @@
+package com.poundsaver.scraper.browser;
+
+import com.microsoft.playwright.BrowserContext;
+
+/**
+ * Exclusive use of one pooled browser through a fresh {@link BrowserContext}. Closing the
+ * lease closes the context and hands the browser back to the pool.
+ */
+public class BrowserLease implements AutoCloseable {
+
+    private final BrowserPool pool;
+    private final PooledBrowser browser;
+    private final BrowserContext context;
+    private int pagesOpened;
+    private boolean released;
+
+    BrowserLease(BrowserPool pool, PooledBrowser browser, BrowserContext context) {
+        this.pool = pool;
+        this.browser = browser;
+        this.context = context;
+        context.onPage(page -> pagesOpened++);
+    }
+
+    public BrowserContext context() {
+        return context;
+    }
+
+    PooledBrowser browser() {
+        return browser;
+    }
+
+    int pagesOpened() {
+        return pagesOpened;
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        pool.release(this);
+    }
+}
@@ -0,0 +1,223 @@
+package com.poundsaver.scraper.browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool of long-lived Chromium instances. Browsers are started lazily, handed out
+ * one lease at a time and recycled once they have served too many pages, grown past the
+ * memory watermark or lost their connection.
+ */
+@Slf4j
+@Component
+public class BrowserPool {
+
+    private static final String HEAP_SCRIPT =
+            "() => (performance.memory ? performance.memory.usedJSHeapSize : 0)";
+
+    private final ScraperProperties.Pool settings;
+    private final StorageStateStore storageStates;
+    private final Semaphore capacity;
+    private final BlockingQueue<PooledBrowser> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final Counter recycledCounter;
+    private volatile boolean closed;
+
+    public BrowserPool(ScraperProperties properties, StorageStateStore storageStates, MeterRegistry meterRegistry) {
+        this.settings = properties.getBrowserPool();
+        this.storageStates = storageStates;
+        this.capacity = new Semaphore(settings.getSize(), true);
+
+        Gauge.builder("scraper_browsers_leased", leased, AtomicInteger::get)
+                .description("Pooled browsers currently leased to scraping jobs")
+                .register(meterRegistry);
+        Gauge.builder("scraper_browsers_idle", idle, BlockingQueue::size)
+                .description("Started pooled browsers waiting for a lease")
+                .register(meterRegistry);
+        this.recycledCounter = Counter.builder("scraper_browsers_recycled_total")
+                .description("Pooled browsers closed after hitting a page, memory or health limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Leases a browser whose context starts from {@code retailer}'s saved cookies and storage.
+     */
+    public BrowserLease lease(Retailer retailer) {
+        Browser.NewContextOptions options = storageStates.contextOptions(retailer);
+        BrowserLease lease = lease(options);
+        storageStates.seeded(lease.context(), options);
+        return lease;
+    }
+
+    public BrowserLease lease(Browser.NewContextOptions contextOptions) {
+        if (closed) {
+            throw new ScrapingException("Browser pool is shut down");
+        }
+
+        try {
+            if (!capacity.tryAcquire(settings.getLeaseTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ScrapingException("No pooled browser available within " + settings.getLeaseTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScrapingException("Interrupted while waiting for a pooled browser", e);
+        }
+
+        PooledBrowser browser = null;
+        try {
+            browser = idle.poll();
+            if (browser == null || !browser.isHealthy()) {
+                if (browser != null) {
+                    recycle(browser, "unhealthy at lease");
+                }
+                browser = launch();
+            }
+
+            if (contextOptions.userAgent == null) {
+                contextOptions.setUserAgent(settings.getUserAgent());
+            }
+            BrowserContext context = browser.browser().newContext(contextOptions);
+
+            leased.incrementAndGet();
+            return new BrowserLease(this, browser, context);
+        } catch (RuntimeException e) {
+            if (browser != null) {
+                recycle(browser, "failed to open context");
+            }
+            capacity.release();
+            throw e instanceof ScrapingException ? e : new ScrapingException("Failed to lease browser", e);
+        }
+    }
+
+    void release(BrowserLease lease) {
+        PooledBrowser browser = lease.browser();
+        BrowserContext context = lease.context();
+
+        try {
+            browser.recordUsage(lease.pagesOpened(), sampleHeapBytes(context));
+            context.close();
+        } catch (Exception e) {
+            log.warn("Error closing browser context on pooled browser {}: {}", browser.id(), e.getMessage());
+        } finally {
+            leased.decrementAndGet();
+        }
+
+        try {
+            String reason = recycleReason(browser);
+            if (reason != null) {
+                recycle(browser, reason);
+            } else {
+                idle.offer(browser);
+            }
+        } finally {
+            capacity.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.browser-pool.health-check-interval-ms:30000}")
+    public void checkIdleBrowsers() {
+        int toCheck = idle.size();
+        for (int i = 0; i < toCheck; i++) {
+            if (!capacity.tryAcquire()) {
+                return;
+            }
+            try {
+                PooledBrowser browser = idle.poll();
+                if (browser == null) {
+                    return;
+                }
+                String reason = recycleReason(browser);
+                if (reason != null) {
+                    recycle(browser, reason);
+                } else {
+                    idle.offer(browser);
+                }
+            } finally {
+                capacity.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        PooledBrowser browser;
+        while ((browser = idle.poll()) != null) {
+            browser.close();
+        }
+    }
+
+    private PooledBrowser launch() {
+        int id = nextId.incrementAndGet();
+        Playwright playwright = Playwright.create();
+        try {
+            Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
+                    .setHeadless(settings.isHeadless())
+                    .setArgs(settings.getLaunchArgs()));
+            log.info("Launched pooled browser {}", id);
+            return new PooledBrowser(id, playwright, browser);
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
+
+    private String recycleReason(PooledBrowser browser) {
+        if (closed) {
+            return "pool shut down";
+        }
+        if (!browser.isHealthy()) {
+            return "disconnected";
+        }
+        if (browser.pagesServed() >= settings.getMaxPagesPerBrowser()) {
+            return "served " + browser.pagesServed() + " pages";
+        }
+        if (browser.peakHeapBytes() >= settings.getMemoryWatermarkMb() * 1024 * 1024) {
+            return "JS heap reached " + browser.peakHeapBytes() / (1024 * 1024) + "MB";
+        }
+        return null;
+    }
+
+    private void recycle(PooledBrowser browser, String reason) {
+        log.info("Recycling pooled browser {} ({})", browser.id(), reason);
+        browser.close();
+        if (!closed) {
+            recycledCounter.increment();
+        }
+    }
+
+    private long sampleHeapBytes(BrowserContext context) {
+        long heapBytes = 0;
+        for (Page page : context.pages()) {
+            try {
+                Object used = page.evaluate(HEAP_SCRIPT);
+                if (used instanceof Number number) {
+                    heapBytes = Math.max(heapBytes, number.longValue());
+                }
+            } catch (Exception e) {
+                log.debug("Could not sample JS heap: {}", e.getMessage());
+            }
+        }
+        return heapBytes;
+    }
+}
@@ -0,0 +1,69 @@
+package com.poundsaver.scraper.browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Playwright;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A long-lived Playwright driver and Chromium instance. Playwright is not thread-safe,
+ * so a pooled browser is only ever touched by the thread holding its lease, or by the
+ * pool itself while the browser is idle.
+ */
+@Slf4j
+class PooledBrowser {
+
+    private final int id;
+    private final Playwright playwright;
+    private final Browser browser;
+    private int pagesServed;
+    private long peakHeapBytes;
+
+    PooledBrowser(int id, Playwright playwright, Browser browser) {
+        this.id = id;
+        this.playwright = playwright;
+        this.browser = browser;
+    }
+
+    int id() {
+        return id;
+    }
+
+    Browser browser() {
+        return browser;
+    }
+
+    int pagesServed() {
+        return pagesServed;
+    }
+
+    long peakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    void recordUsage(int pages, long heapBytes) {
+        pagesServed += pages;
+        peakHeapBytes = Math.max(peakHeapBytes, heapBytes);
+    }
+
+    boolean isHealthy() {
+        try {
+            return browser.isConnected();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    void close() {
+        try {
+            browser.close();
+        } catch (Exception e) {
+            log.warn("Error closing pooled browser {}: {}", id, e.getMessage());
+        }
+
+        try {
+            playwright.close();
+        } catch (Exception e) {
+            log.warn("Error closing playwright for pooled browser {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.poundsaver.scraper.browser;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Installs the per-retailer fast-mode request policy on a browser context. Blocked resource
+ * types and third-party hosts are aborted before they leave the browser; everything else falls
+ * through to any other route handlers on the context.
+ */
+@Slf4j
+@Component
+public class ResourceBlocker {
+
+    private final ScraperProperties.FastMode settings;
+    private final MeterRegistry meterRegistry;
+
+    public ResourceBlocker(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getFastMode();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public TrafficStats install(BrowserContext context, Retailer retailer) {
+        ScraperProperties.FastMode policy = settings.policyFor(retailer);
+        TrafficStats stats = new TrafficStats(retailer, policy.isEnabled());
+
+        context.onResponse(response -> stats.transferred(response.headers().get("content-length")));
+
+        if (policy.isEnabled()) {
+            Set<String> blockedTypes = new HashSet<>(policy.getBlockedResourceTypes());
+            List<String> blockedHosts = policy.getBlockedHosts();
+            context.route("**/*", route -> {
+                Request request = route.request();
+                if (blockedTypes.contains(request.resourceType()) || isBlockedHost(request.url(), blockedHosts)) {
+                    stats.blocked(request.resourceType());
+                    route.abort("blockedbyclient");
+                } else {
+                    route.fallback();
+                }
+            });
+        }
+        return stats;
+    }
+
+    public void record(TrafficStats stats) {
+        String retailer = stats.retailer.name();
+        String fastMode = String.valueOf(stats.fastMode);
+
+        DistributionSummary.builder("scraper_page_transfer_bytes")
+                .description("Response bytes downloaded per scrape job, from Content-Length")
+                .baseUnit("bytes")
+                .tags("retailer", retailer, "fast_mode", fastMode)
+                .register(meterRegistry)
+                .record(stats.bytesTransferred);
+        DistributionSummary.builder("scraper_page_requests")
+                .description("Requests completed per scrape job")
+                .tags("retailer", retailer, "fast_mode", fastMode)
+                .register(meterRegistry)
+                .record(stats.requestsCompleted);
+        DistributionSummary.builder("scraper_blocked_requests")
+                .description("Requests aborted by the fast-mode policy per scrape job")
+                .tags("retailer", retailer)
+                .register(meterRegistry)
+                .record(stats.requestsBlocked);
+
+        stats.blockedByType.forEach((type, count) -> Counter.builder("scraper_blocked_requests_total")
+                .description("Requests aborted by the fast-mode policy")
+                .tags("retailer", retailer, "resource_type", type)
+                .register(meterRegistry)
+                .increment(count));
+
+        log.debug("{} traffic: {} requests, {} bytes, {} blocked", stats.retailer,
+                stats.requestsCompleted, stats.bytesTransferred, stats.requestsBlocked);
+    }
+
+    private static boolean isBlockedHost(String url, List<String> blockedHosts) {
+        if (blockedHosts.isEmpty()) {
+            return false;
+        }
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return false;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            for (String blocked : blockedHosts) {
+                if (host.equals(blocked) || host.endsWith("." + blocked)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * Traffic counters for one scrape job. Route and response handlers are dispatched on the
+     * thread holding the browser lease, so plain fields are enough.
+     */
+    public static class TrafficStats {
+        private final Retailer retailer;
+        private final boolean fastMode;
+        private final Map<String, Long> blockedByType = new HashMap<>();
+        private long bytesTransferred;
+        private long requestsCompleted;
+        private long requestsBlocked;
+
+        TrafficStats(Retailer retailer, boolean fastMode) {
+            this.retailer = retailer;
+            this.fastMode = fastMode;
+        }
+
+        void transferred(String contentLength) {
+            requestsCompleted++;
+            if (contentLength != null) {
+                try {
+                    bytesTransferred += Long.parseLong(contentLength.trim());
+                } catch (NumberFormatException ignored) {
+                    // chunked or malformed length, count the request only
+                }
+            }
+        }
+
+        void blocked(String resourceType) {
+            requestsBlocked++;
+            blockedByType.merge(resourceType, 1L, Long::sum);
+        }
+    }
+}
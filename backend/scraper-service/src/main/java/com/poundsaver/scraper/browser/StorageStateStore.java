@@ -0,0 +1,159 @@
+package com.poundsaver.scraper.browser;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Per-retailer browser storage state (cookies and localStorage) kept on local disk as
+ * {@code <directory>/<RETAILER>.json}. New contexts start from the saved state while it is
+ * younger than {@code maxAge}, so consent walls and redirect chains answered once stay
+ * answered. State is captured again from a successful session at most every
+ * {@code refreshInterval}, and discarded as soon as the retailer blocks us, since a
+ * challenged session is likely what got us blocked.
+ */
+@Slf4j
+@Component
+public class StorageStateStore {
+
+    private final ScraperProperties.StorageState settings;
+    private final Path directory;
+    private final Map<Retailer, Instant> capturedAt = new EnumMap<>(Retailer.class);
+    private final Set<BrowserContext> seeded = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final MeterRegistry meterRegistry;
+
+    public StorageStateStore(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getStorageState();
+        this.directory = Paths.get(settings.getDirectory());
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Context options for a new {@code retailer} context, seeded from the saved state if one
+     * exists and has not expired.
+     */
+    public Browser.NewContextOptions contextOptions(Retailer retailer) {
+        Browser.NewContextOptions options = new Browser.NewContextOptions();
+        if (!settings.isEnabled()) {
+            return options;
+        }
+        Path file = fileFor(retailer);
+        try {
+            if (Files.isRegularFile(file)) {
+                Duration age = Duration.between(Files.getLastModifiedTime(file).toInstant(), Instant.now());
+                if (age.compareTo(settings.getMaxAge()) < 0) {
+                    // Read now rather than pass the path, so a concurrent invalidate cannot fail the lease
+                    String state = Files.readString(file);
+                    outcome(retailer, "loaded").increment();
+                    return options.setStorageState(state);
+                }
+                outcome(retailer, "expired").increment();
+                Files.deleteIfExists(file);
+                return options;
+            }
+        } catch (IOException e) {
+            log.warn("Could not read saved browser state for {}: {}", retailer, e.getMessage());
+            return options;
+        }
+        outcome(retailer, "missing").increment();
+        return options;
+    }
+
+    /**
+     * Remembers that {@code context} was created from saved state, for metric tagging.
+     */
+    public void seeded(BrowserContext context, Browser.NewContextOptions options) {
+        if (options.storageState != null) {
+            seeded.add(context);
+        }
+    }
+
+    public boolean isSeeded(BrowserContext context) {
+        return seeded.contains(context);
+    }
+
+    /**
+     * Saves {@code context}'s cookies and localStorage as the retailer's state, unless that
+     * was done within the last {@code refreshInterval}. Call only after a session that
+     * returned real results. Must run on the thread holding the context's lease.
+     */
+    public void capture(Retailer retailer, BrowserContext context) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        synchronized (capturedAt) {
+            Instant last = capturedAt.get(retailer);
+            if (last != null && Duration.between(last, now).compareTo(settings.getRefreshInterval()) < 0) {
+                return;
+            }
+            capturedAt.put(retailer, now);
+        }
+
+        Path file = fileFor(retailer);
+        Path staging = directory.resolve(retailer.name() + ".json.tmp-" + Thread.currentThread().getId());
+        try {
+            Files.createDirectories(directory);
+            context.storageState(new BrowserContext.StorageStateOptions().setPath(staging));
+            Files.move(staging, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            outcome(retailer, "captured").increment();
+            log.debug("Saved browser state for {} to {}", retailer, file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save browser state for {}: {}", retailer, e.getMessage());
+            try {
+                Files.deleteIfExists(staging);
+            } catch (IOException ignored) {
+                // Left for the next capture to overwrite
+            }
+        }
+    }
+
+    /**
+     * Drops the retailer's saved state so the next context starts clean.
+     */
+    public void invalidate(Retailer retailer) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(fileFor(retailer))) {
+                outcome(retailer, "invalidated").increment();
+                log.info("Discarded saved browser state for {} after a block", retailer);
+            }
+        } catch (IOException e) {
+            log.warn("Could not discard saved browser state for {}: {}", retailer, e.getMessage());
+        }
+        synchronized (capturedAt) {
+            capturedAt.remove(retailer);
+        }
+    }
+
+    private Path fileFor(Retailer retailer) {
+        return directory.resolve(retailer.name() + ".json");
+    }
+
+    private Counter outcome(Retailer retailer, String outcome) {
+        return Counter.builder("scraper_storage_state_total")
+                .description("Saved browser state lookups and updates, by outcome")
+                .tags("retailer", retailer.name(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.poundsaver.scraper.config;
+
+import com.poundsaver.scraper.kafka.ScrapeCommandPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicsConfig {
+
+    @Bean
+    public NewTopic scrapeCommandsTopic(ScraperProperties properties) {
+        return TopicBuilder.name(ScrapeCommandPublisher.COMMANDS_TOPIC)
+                .partitions(properties.getSharding().getPartitions())
+                .build();
+    }
+
+    @Bean
+    public NewTopic scrapeJobUpdatesTopic(ScraperProperties properties) {
+        return TopicBuilder.name(ScrapeCommandPublisher.UPDATES_TOPIC)
+                .partitions(properties.getSharding().getPartitions())
+                .build();
+    }
+}
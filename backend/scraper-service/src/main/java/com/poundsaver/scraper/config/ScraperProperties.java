@@ -0,0 +1,246 @@
+package com.poundsaver.scraper.config;
+
+import com.poundsaver.shared.enums.Retailer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "scraper")
+public class ScraperProperties {
+
+    private Pool browserPool = new Pool();
+    private StorageState storageState = new StorageState();
+    private HttpFetch httpFetch = new HttpFetch();
+    private Executor executor = new Executor();
+    private FastMode fastMode = new FastMode();
+    private Timeouts timeouts = new Timeouts();
+    private Latency latency = new Latency();
+    private Fixtures fixtures = new Fixtures();
+    private Jobs jobs = new Jobs();
+    private Batch batch = new Batch();
+    private Coalescing coalescing = new Coalescing();
+    private Fingerprints fingerprints = new Fingerprints();
+    private Emission emission = new Emission();
+    private EmissionFilter emissionFilter = new EmissionFilter();
+    private Sharding sharding = new Sharding();
+    private Politeness politeness = new Politeness();
+    private Prewarm prewarm = new Prewarm();
+    private Crawl crawl = new Crawl();
+    private Simulator simulator = new Simulator();
+
+    @Data
+    public static class Pool {
+        private int size = 4;
+        private int maxPagesPerBrowser = 200;
+        private long memoryWatermarkMb = 512;
+        private Duration leaseTimeout = Duration.ofSeconds(30);
+        private boolean headless = true;
+        private String userAgent = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+        private List<String> launchArgs = new ArrayList<>(List.of("--disable-blink-features=AutomationControlled"));
+    }
+
+    @Data
+    public static class StorageState {
+        private boolean enabled = true;
+        private String directory = "browser-state";
+        private Duration maxAge = Duration.ofHours(12);
+        private Duration refreshInterval = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class HttpFetch {
+        private boolean enabled = true;
+        private Duration connectTimeout = Duration.ofSeconds(3);
+        private Duration timeout = Duration.ofSeconds(10);
+        private List<Retailer> browserOnly = new ArrayList<>();
+    }
+
+    @Data
+    public static class Executor {
+        private int maxConcurrentJobs = 4;
+        private int queueCapacity = 32;
+        private Lane retailerDefaults = new Lane();
+        private Map<Retailer, Lane> retailers = new EnumMap<>(Retailer.class);
+
+        public Lane laneFor(Retailer retailer) {
+            return retailers.getOrDefault(retailer, retailerDefaults);
+        }
+    }
+
+    @Data
+    public static class Lane {
+        private int maxConcurrent = 1;
+        private int queueCapacity = 8;
+    }
+
+    @Data
+    public static class FastMode {
+        private boolean enabled = true;
+        private List<String> blockedResourceTypes = new ArrayList<>(List.of("image", "media", "font"));
+        private List<String> blockedHosts = new ArrayList<>();
+        private Map<Retailer, FastMode> retailers = new EnumMap<>(Retailer.class);
+
+        public FastMode policyFor(Retailer retailer) {
+            return retailers.getOrDefault(retailer, this);
+        }
+    }
+
+    @Data
+    public static class Timeouts {
+        private Duration navigation = Duration.ofSeconds(30);
+        private Duration readiness = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Latency {
+        private Duration window = Duration.ofMinutes(10);
+        private int slices = 10;
+        private int minSamples = 20;
+        private boolean adaptiveTimeouts = true;
+        private double timeoutMultiplier = 1.5;
+        private Duration minNavigationTimeout = Duration.ofSeconds(5);
+        private Duration maxNavigationTimeout = Duration.ofSeconds(60);
+        private boolean hedging = true;
+        private double hedgePercentile = 95.0;
+        private Duration minHedgeDelay = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Fixtures {
+        private Mode mode = Mode.OFF;
+        private String directory = "fixtures";
+        private String version = "v1";
+        private Duration replayLatencyMin = Duration.ZERO;
+        private Duration replayLatencyMax = Duration.ZERO;
+
+        public enum Mode {
+            OFF,
+            RECORD,
+            REPLAY
+        }
+    }
+
+    @Data
+    public static class Jobs {
+        private Duration streamTimeout = Duration.ofMinutes(5);
+        private Duration scrapeAllDeadline = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Batch {
+        private int parallelism = 3;
+        private int maxQueries = 200;
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = true;
+        private Duration reuseWindow = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Fingerprints {
+        private boolean enabled = true;
+        private int maxQueries = 10_000;
+    }
+
+    @Data
+    public static class Emission {
+        private int maxInFlight = 256;
+    }
+
+    @Data
+    public static class EmissionFilter {
+        private boolean enabled = true;
+        private Duration window = Duration.ofHours(6);
+        private int expectedProducts = 1_000_000;
+        private double falsePositiveRate = 0.001;
+    }
+
+    @Data
+    public static class Sharding {
+        private boolean enabled = false;
+        private String instanceId;
+        private int partitions = 8;
+        private Duration commandTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Politeness {
+        private boolean enabled = true;
+        private Budget retailerDefaults = new Budget();
+        private Map<Retailer, Budget> retailers = new EnumMap<>(Retailer.class);
+
+        public Budget budgetFor(Retailer retailer) {
+            return retailers.getOrDefault(retailer, retailerDefaults);
+        }
+    }
+
+    @Data
+    public static class Budget {
+        private double requestsPerMinute = 20;
+        private int burst = 3;
+        private double backoffMultiplier = 0.5;
+        private double recoveryStep = 0.05;
+        private double minFactor = 0.1;
+        private Duration maxWait = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Prewarm {
+        private boolean enabled = true;
+        private int topQueries = 20;
+        private double minSearches = 3;
+        private int sketchCapacity = 1000;
+        private Duration halfLife = Duration.ofHours(1);
+        private Duration freshness = Duration.ofMinutes(30);
+        private Map<Retailer, Duration> retailerFreshness = new EnumMap<>(Retailer.class);
+        private int maxJobsPerTick = 8;
+        private long lockKey = 727_001L;
+
+        public Duration freshnessFor(Retailer retailer) {
+            return retailerFreshness.getOrDefault(retailer, freshness);
+        }
+    }
+
+    @Data
+    public static class Crawl {
+        private boolean enabled = true;
+        private String directory = "crawl-frontier";
+        private int parallelism = 2;
+        private int pagesPerSession = 25;
+        private int maxPages = 5_000;
+        private int maxAttempts = 3;
+        private Duration maxPolitenessWait = Duration.ofSeconds(5);
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Simulator {
+        private String baseUrl;
+
+        /**
+         * Points {@code url} at the retailer simulator when {@code baseUrl} is set, keeping the
+         * path and query the strategy built: {@code <baseUrl>/<retailer><path>?<query>}.
+         */
+        public String rewrite(Retailer retailer, String url) {
+            if (baseUrl == null || baseUrl.isBlank()) {
+                return url;
+            }
+            URI uri = URI.create(url);
+            String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+            String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+            return baseUrl.replaceAll("/+$", "") + "/" + retailer.name().toLowerCase(Locale.ROOT) + path + query;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.poundsaver.scraper.controller;
 
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.crawl.CatalogueCrawler;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.service.JobRegistry;
 import com.poundsaver.scraper.service.PlaywrightScraperService;
 import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
 import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
@@ -20,6 +32,10 @@ import java.util.concurrent.CompletableFuture;
 public class ScraperController {
 
     private final PlaywrightScraperService scraperService;
+    private final CatalogueCrawler catalogueCrawler;
+    private final JobRegistry jobRegistry;
+    private final PolitenessLimiter politenessLimiter;
+    private final ScraperProperties properties;
 
     @PostMapping("/scrape")
     public CompletableFuture<ResponseEntity<?>> scrapeAll(@RequestParam String query) {
@@ -31,8 +47,11 @@ public class ScraperController {
         }
         
         return scraperService.scrapeAllRetailers(query.trim())
-                .thenApply(ResponseEntity::ok)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
+                    if (isRejection(ex)) {
+                        return tooManyRequests(rootCause(ex));
+                    }
                     log.error("Error in scrapeAll: {}", ex.getMessage());
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(Map.of("error", "Failed to scrape retailers", 
@@ -40,6 +59,31 @@ public class ScraperController {
                 });
     }
 
+    /**
+     * Streams each retailer's job and products as it finishes. {@code deadlineMs} bounds the
+     * whole stream; retailers still running then are sent as {@code deadline} events.
+     */
+    @PostMapping(value = "/scrape/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScrapeAll(
+            @RequestParam String query,
+            @RequestParam(required = false) Long deadlineMs) {
+
+        if (query == null || query.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query parameter cannot be empty");
+        }
+
+        ScraperProperties.Jobs jobs = properties.getJobs();
+        Duration deadline = deadlineMs == null || deadlineMs <= 0
+                ? jobs.getScrapeAllDeadline()
+                : Duration.ofMillis(Math.min(deadlineMs, jobs.getStreamTimeout().toMillis()));
+
+        return ResponseEntity.ok()
+                // Ask any proxy in front of us not to buffer the event stream
+                .header("X-Accel-Buffering", "no")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(scraperService.streamAllRetailers(query.trim(), deadline));
+    }
+
     @PostMapping("/scrape/{retailer}")
     public CompletableFuture<ResponseEntity<?>> scrapeRetailer(
             @PathVariable Retailer retailer,
@@ -60,8 +104,11 @@ public class ScraperController {
         }
         
         return scraperService.scrapeRetailer(retailer, query.trim())
-                .thenApply(ResponseEntity::ok)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
                 .exceptionally(ex -> {
+                    if (isRejection(ex)) {
+                        return tooManyRequests(rootCause(ex));
+                    }
                     log.error("Error scraping retailer {}: {}", retailer, ex.getMessage());
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(Map.of("error", "Failed to scrape " + retailer, 
@@ -69,8 +116,118 @@ public class ScraperController {
                 });
     }
 
+    @PostMapping("/scrape/{retailer}/batch")
+    public CompletableFuture<ResponseEntity<?>> scrapeRetailerBatch(
+            @PathVariable Retailer retailer,
+            @RequestBody List<String> queries) {
+
+        if (queries == null || queries.stream().allMatch(query -> query == null || query.trim().isEmpty())) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest()
+                    .body(Map.of("error", "Request body must list at least one query"))
+            );
+        }
+
+        return scraperService.scrapeRetailerBatch(retailer, queries)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    Throwable cause = rootCause(ex);
+                    if (cause instanceof IllegalArgumentException) {
+                        return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+                    }
+                    log.error("Error in batch scrape of {}: {}", retailer, ex.getMessage());
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(Map.of("error", "Failed to scrape batch for " + retailer,
+                                   "message", ex.getMessage() != null ? ex.getMessage() : "Unknown error"));
+                });
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJobs(
+            @RequestParam String query,
+            @RequestParam(required = false) List<Retailer> retailers) {
+
+        if (query == null || query.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Query parameter cannot be empty"));
+        }
+
+        List<Retailer> targets = retailers == null || retailers.isEmpty()
+                ? List.of(Retailer.values())
+                : retailers;
+        List<ScrapingJobDTO> jobs = scraperService.submitJobs(targets, query.trim());
+
+        if (jobs.stream().allMatch(job -> job.getStatus() == JobStatus.CANCELLED)) {
+            return tooManyRequests(new ScrapingRejectedException("All requested retailer scrape queues are full"));
+        }
+        return ResponseEntity.accepted().body(jobs);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        return jobRegistry.find(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Job not found", "jobId", jobId)));
+    }
+
+    @GetMapping(value = "/jobs/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobs(@RequestParam List<String> ids) {
+        return jobRegistry.subscribe(ids);
+    }
+
+    @PostMapping("/crawl/{retailer}")
+    public ResponseEntity<?> startCrawl(@PathVariable Retailer retailer) {
+        try {
+            return ResponseEntity.accepted().body(catalogueCrawler.start(retailer));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/crawl/{retailer}")
+    public ResponseEntity<?> stopCrawl(@PathVariable Retailer retailer) {
+        return catalogueCrawler.stop(retailer)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No catalogue crawl running", "retailer", retailer)));
+    }
+
+    @GetMapping("/crawl")
+    public ResponseEntity<Map<Retailer, CatalogueCrawler.Status>> crawls() {
+        return ResponseEntity.ok(catalogueCrawler.status());
+    }
+
+    @GetMapping("/limits")
+    public ResponseEntity<Map<Retailer, PolitenessLimiter.State>> limits() {
+        return ResponseEntity.ok(politenessLimiter.state());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP", "service", "scraper-service"));
     }
+
+    private static boolean isRejection(Throwable ex) {
+        return rootCause(ex) instanceof ScrapingRejectedException;
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * Sets {@code Retry-After} in whole seconds, rounded up, when the rejection carries the
+     * politeness wait; queue-full rejections have no estimate and omit it.
+     */
+    private static ResponseEntity<?> tooManyRequests(Throwable cause) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+        if (cause instanceof ScrapingRejectedException rejected && rejected.getRetryAfter() != null) {
+            long seconds = Math.max(1, (rejected.getRetryAfter().toMillis() + 999) / 1000);
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        }
+        return response
+            .body(Map.of("error", "Scraper is at capacity, retry later",
+                       "message", cause.getMessage() != null ? cause.getMessage() : "Queue full"));
+    }
 }
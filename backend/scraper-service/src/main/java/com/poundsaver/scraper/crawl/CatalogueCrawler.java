@@ -0,0 +1,352 @@
+package com.poundsaver.scraper.crawl;
+
+import com.microsoft.playwright.Page;
+import com.poundsaver.scraper.browser.BrowserLease;
+import com.poundsaver.scraper.browser.BrowserPool;
+import com.poundsaver.scraper.browser.ResourceBlocker;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.kafka.ProductEmitter;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.scheduling.ScrapeScheduler;
+import com.poundsaver.scraper.strategy.CrawlSpec;
+import com.poundsaver.scraper.strategy.ScrapeEngine;
+import com.poundsaver.scraper.strategy.ScraperStrategyFactory;
+import com.poundsaver.scraper.strategy.TileScraper;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Walks a retailer's category and pagination pages so coverage does not depend on what users
+ * happened to search for. Each crawl's frontier is a {@link CrawlFrontier} log under
+ * {@code scraper.crawl.directory}, and crawls found there at startup resume where they
+ * stopped. Every tick tops each crawl up to {@code parallelism} sessions, but only through
+ * idle lane slots and while the retailer's politeness budget has room, so crawling never
+ * delays searches. A session visits up to {@code pagesPerSession} pages on one browser
+ * context, sending products to Kafka as they are read, then gives its slot back.
+ */
+@Slf4j
+@Component
+public class CatalogueCrawler {
+
+    private final ScraperProperties.Crawl settings;
+    private final Path directory;
+    private final ScraperStrategyFactory strategyFactory;
+    private final ScrapeEngine engine;
+    private final BrowserPool browserPool;
+    private final ResourceBlocker resourceBlocker;
+    private final ProductEmitter productEmitter;
+    private final ScrapeScheduler scheduler;
+    private final PolitenessLimiter politeness;
+    private final MeterRegistry meterRegistry;
+    private final Map<Retailer, Crawl> crawls = new EnumMap<>(Retailer.class);
+
+    public CatalogueCrawler(ScraperProperties properties, ScraperStrategyFactory strategyFactory, ScrapeEngine engine,
+                            BrowserPool browserPool, ResourceBlocker resourceBlocker, ProductEmitter productEmitter,
+                            ScrapeScheduler scheduler, PolitenessLimiter politeness, MeterRegistry meterRegistry) {
+        this.settings = properties.getCrawl();
+        this.directory = Paths.get(settings.getDirectory());
+        this.strategyFactory = strategyFactory;
+        this.engine = engine;
+        this.browserPool = browserPool;
+        this.resourceBlocker = resourceBlocker;
+        this.productEmitter = productEmitter;
+        this.scheduler = scheduler;
+        this.politeness = politeness;
+        this.meterRegistry = meterRegistry;
+        for (Retailer retailer : Retailer.values()) {
+            Gauge.builder("scraper_crawl_frontier_pending", this, crawler -> crawler.status(retailer)
+                            .map(Status::pending)
+                            .orElse(0))
+                    .description("Catalogue crawl pages queued or being visited")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void resume() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (Retailer retailer : Retailer.values()) {
+            if (!Files.isRegularFile(frontierFile(retailer))) {
+                continue;
+            }
+            try {
+                Status status = start(retailer);
+                log.info("Resuming {} catalogue crawl: {} pages done, {} pending", retailer,
+                        status.completed(), status.pending());
+            } catch (RuntimeException e) {
+                log.warn("Could not resume {} catalogue crawl: {}", retailer, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts a crawl of {@code retailer}'s catalogue, or resumes its frontier from disk. A crawl
+     * that is already running is left as it is.
+     */
+    public synchronized Status start(Retailer retailer) {
+        if (!settings.isEnabled()) {
+            throw new IllegalStateException("Catalogue crawls are disabled");
+        }
+        if (!(strategyFactory.getStrategy(retailer) instanceof TileScraper strategy) || strategy.crawlSpec() == null) {
+            throw new IllegalArgumentException(retailer + " does not support catalogue crawls");
+        }
+        CrawlSpec spec = strategy.crawlSpec();
+        Crawl crawl = crawls.get(retailer);
+        if (crawl == null) {
+            try {
+                CrawlFrontier frontier = CrawlFrontier.open(frontierFile(retailer), settings.getMaxPages());
+                frontier.seed(spec.seeds());
+                crawl = new Crawl(retailer, strategy, spec, frontier);
+                crawls.put(retailer, crawl);
+            } catch (IOException | UncheckedIOException e) {
+                throw new ScrapingException("Could not open the " + retailer + " crawl frontier", e);
+            }
+        }
+        // Starting again while sessions drain after a stop keeps the crawl going
+        crawl.stopping = false;
+        return crawl.status();
+    }
+
+    /**
+     * Stops {@code retailer}'s crawl once its running sessions finish their current page. The
+     * frontier stays on disk, so a later start resumes it.
+     */
+    public synchronized Optional<Status> stop(Retailer retailer) {
+        Crawl crawl = crawls.get(retailer);
+        if (crawl == null) {
+            return Optional.empty();
+        }
+        crawl.stopping = true;
+        return Optional.of(crawl.status());
+    }
+
+    public synchronized Optional<Status> status(Retailer retailer) {
+        return Optional.ofNullable(crawls.get(retailer)).map(Crawl::status);
+    }
+
+    public synchronized Map<Retailer, Status> status() {
+        Map<Retailer, Status> status = new EnumMap<>(Retailer.class);
+        crawls.forEach((retailer, crawl) -> status.put(retailer, crawl.status()));
+        return status;
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.crawl.interval-ms:15000}",
+            initialDelayString = "${scraper.crawl.interval-ms:15000}")
+    public void tick() {
+        List<Crawl> running;
+        synchronized (this) {
+            running = List.copyOf(crawls.values());
+        }
+        for (Crawl crawl : running) {
+            if (retireIfIdle(crawl) || crawl.stopping) {
+                continue;
+            }
+            while (crawl.sessions.get() < Math.max(1, settings.getParallelism())
+                    && politeness.estimateWait(crawl.retailer).isZero()) {
+                crawl.sessions.incrementAndGet();
+                CompletableFuture<Void> session = scheduler.trySubmit(crawl.retailer, () -> {
+                    runSession(crawl);
+                    return null;
+                });
+                if (session == null) {
+                    // No idle slot; searches keep priority until the next tick
+                    crawl.sessions.decrementAndGet();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops every crawl and gives running sessions up to {@code shutdownTimeout} to finish their
+     * current page before the frontiers close. Pages still in flight after that are revisited
+     * after the restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Crawl> running;
+        synchronized (this) {
+            running = List.copyOf(crawls.values());
+            running.forEach(crawl -> crawl.stopping = true);
+        }
+        long deadline = System.nanoTime() + settings.getShutdownTimeout().toNanos();
+        for (Crawl crawl : running) {
+            while (crawl.sessions.get() > 0 && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (crawl.sessions.get() > 0) {
+                log.warn("Closing the {} crawl frontier with {} sessions still running", crawl.retailer,
+                        crawl.sessions.get());
+            }
+            crawl.frontier.close();
+        }
+    }
+
+    private synchronized boolean retireIfIdle(Crawl crawl) {
+        if (crawl.sessions.get() > 0 || !(crawl.stopping || crawl.frontier.isExhausted())) {
+            return false;
+        }
+        crawls.remove(crawl.retailer);
+        Status status = crawl.status();
+        if (crawl.stopping) {
+            crawl.frontier.close();
+            log.info("Stopped {} catalogue crawl with {} pages pending", crawl.retailer, status.pending());
+            return true;
+        }
+        try {
+            crawl.frontier.delete();
+        } catch (IOException e) {
+            log.warn("Could not remove the finished {} crawl frontier: {}", crawl.retailer, e.getMessage());
+        }
+        log.info("Finished {} catalogue crawl: {} pages, {} given up, {} products", crawl.retailer,
+                status.completed(), status.failed(), status.products());
+        return true;
+    }
+
+    private void runSession(Crawl crawl) {
+        Retailer retailer = crawl.retailer;
+        TileScraper strategy = crawl.strategy;
+        ProductEmitter.Stream stream = productEmitter.open(retailer);
+        try (BrowserLease lease = browserPool.lease(retailer)) {
+            ResourceBlocker.TrafficStats traffic = resourceBlocker.install(lease.context(), retailer);
+            Page page = lease.context().newPage();
+            for (int visited = 0; visited < settings.getPagesPerSession() && !crawl.stopping; visited++) {
+                if (politeness.estimateWait(retailer).compareTo(settings.getMaxPolitenessWait()) > 0) {
+                    break;
+                }
+                String url = crawl.frontier.next();
+                if (url == null) {
+                    break;
+                }
+                if (page.isClosed()) {
+                    page = lease.context().newPage();
+                }
+                if (!visit(crawl, strategy, page, url, stream)) {
+                    break;
+                }
+            }
+            resourceBlocker.record(traffic);
+        } catch (UncheckedIOException e) {
+            log.error("Could not write the {} crawl frontier, stopping the crawl: {}", retailer, e.getMessage());
+            crawl.stopping = true;
+        } catch (RuntimeException e) {
+            log.warn("{} crawl session ended early: {}", retailer, e.getMessage());
+        } finally {
+            stream.finish();
+            crawl.sessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Visits one listing page, returning whether the session should go on to the next.
+     */
+    private boolean visit(Crawl crawl, TileScraper strategy, Page page, String url, ProductEmitter.Stream stream) {
+        Retailer retailer = crawl.retailer;
+        long start = System.nanoTime();
+        try {
+            engine.loadPage(retailer, page, url, strategy.readiness());
+            // Unlike a search, failures here propagate so the page is retried
+            strategy.scrapeTiles(engine.extractTiles(retailer, page, strategy.tileSelectors()), product -> {
+                stream.send(product);
+                crawl.products.increment();
+            });
+            List<String> links = engine.extractLinks(page, crawl.spec.linkSelector()).stream()
+                    .filter(crawl.spec::follows)
+                    .toList();
+            crawl.frontier.done(url, links);
+            pages(retailer, "done").increment();
+            return true;
+        } catch (ScrapingRejectedException e) {
+            crawl.frontier.release(url);
+            return false;
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            boolean requeued = crawl.frontier.retry(url, settings.getMaxAttempts());
+            pages(retailer, requeued ? "retried" : "failed").increment();
+            log.warn("{} crawl page {} failed{}: {}", retailer, url, requeued ? "" : " for the last time", e.getMessage());
+            // A block has already backed the politeness budget off, so give the slot back
+            return !(e instanceof ScrapingException);
+        } finally {
+            Timer.builder("scraper_crawl_page_seconds")
+                    .description("Time to load and read one catalogue crawl page")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Counter pages(Retailer retailer, String outcome) {
+        return Counter.builder("scraper_crawl_pages_total")
+                .description("Catalogue crawl page visits, by outcome")
+                .tags("retailer", retailer.name(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Path frontierFile(Retailer retailer) {
+        return directory.resolve(retailer.name() + ".frontier");
+    }
+
+    private static final class Crawl {
+        private final Retailer retailer;
+        private final TileScraper strategy;
+        private final CrawlSpec spec;
+        private final CrawlFrontier frontier;
+        private final AtomicInteger sessions = new AtomicInteger();
+        private final LongAdder products = new LongAdder();
+        private volatile boolean stopping;
+
+        private Crawl(Retailer retailer, TileScraper strategy, CrawlSpec spec, CrawlFrontier frontier) {
+            this.retailer = retailer;
+            this.strategy = strategy;
+            this.spec = spec;
+            this.frontier = frontier;
+        }
+
+        private Status status() {
+            CrawlFrontier.Progress progress = frontier.progress();
+            return new Status(stopping ? "STOPPING" : "RUNNING", progress.seen(), progress.pending(),
+                    progress.completed(), progress.failed(), sessions.get(), products.sum());
+        }
+    }
+
+    /**
+     * {@code products} counts products read since this process started the crawl; the page
+     * counts cover the whole crawl including earlier runs.
+     */
+    public record Status(String state, int seen, int pending, int completed, int failed, int sessions,
+                         long products) {
+    }
+}
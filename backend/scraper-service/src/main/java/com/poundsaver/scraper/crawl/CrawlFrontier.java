@@ -0,0 +1,241 @@
+package com.poundsaver.scraper.crawl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One retailer's crawl frontier, kept as an append-only log with one record per line:
+ * {@code Q <url>} when a URL is first queued, {@code D <url>} once its page has been processed
+ * and {@code F <url>} when it was given up on. Each change is forced to disk before the call
+ * returns, so replaying the log after a restart rebuilds the seen set and the queue exactly;
+ * only pages that were in flight are visited again. A line torn by a crash mid-write is
+ * dropped on replay.
+ */
+final class CrawlFrontier implements Closeable {
+
+    private final Path file;
+    private final int maxPages;
+    private final FileChannel log;
+    private final Set<String> seen = new HashSet<>();
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, Integer> attempts = new HashMap<>();
+    private int completed;
+    private int failed;
+
+    private CrawlFrontier(Path file, int maxPages) throws IOException {
+        this.file = file;
+        this.maxPages = maxPages;
+        long valid = replay();
+        this.log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (log.size() > valid) {
+            log.truncate(valid);
+        }
+        log.position(valid);
+    }
+
+    /**
+     * Opens the frontier at {@code file}, replaying it if it exists. At most {@code maxPages}
+     * URLs are ever queued.
+     */
+    static CrawlFrontier open(Path file, int maxPages) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new CrawlFrontier(file, maxPages);
+    }
+
+    /**
+     * Queues whichever of {@code urls} have not been seen. Seeds of a resumed crawl are all
+     * seen already, so this is safe to call on every start.
+     */
+    synchronized void seed(Collection<String> urls) {
+        StringBuilder records = new StringBuilder();
+        enqueue(urls, records);
+        write(records);
+    }
+
+    /**
+     * The next URL to visit, or {@code null} if none is queued right now. The caller must
+     * settle it with {@link #done}, {@link #retry} or {@link #release}.
+     */
+    synchronized String next() {
+        String url = pending.poll();
+        if (url != null) {
+            inFlight.add(url);
+        }
+        return url;
+    }
+
+    /**
+     * Marks {@code url} processed and queues the unseen {@code links} found on it, in one write.
+     */
+    synchronized void done(String url, Collection<String> links) {
+        StringBuilder records = new StringBuilder();
+        enqueue(links, records);
+        records.append("D ").append(url).append('\n');
+        write(records);
+        inFlight.remove(url);
+        attempts.remove(url);
+        completed++;
+    }
+
+    /**
+     * Puts a failed {@code url} back at the end of the queue, or records it as given up once
+     * it has failed {@code maxAttempts} times. Returns whether it was re-queued.
+     */
+    synchronized boolean retry(String url, int maxAttempts) {
+        inFlight.remove(url);
+        int attempt = attempts.merge(url, 1, Integer::sum);
+        if (attempt < maxAttempts) {
+            pending.addLast(url);
+            return true;
+        }
+        attempts.remove(url);
+        write("F " + url + "\n");
+        failed++;
+        return false;
+    }
+
+    /**
+     * Returns an unvisited {@code url} to the front of the queue without counting an attempt.
+     */
+    synchronized void release(String url) {
+        if (inFlight.remove(url)) {
+            pending.addFirst(url);
+        }
+    }
+
+    synchronized boolean isExhausted() {
+        return pending.isEmpty() && inFlight.isEmpty();
+    }
+
+    synchronized Progress progress() {
+        return new Progress(seen.size(), pending.size() + inFlight.size(), completed, failed);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            log.close();
+        } catch (IOException e) {
+            // Every record was forced already
+        }
+    }
+
+    /**
+     * Closes and removes the log, so the next crawl of the retailer starts from its seeds.
+     */
+    synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Strips the fragment, which never changes the page served. Returns {@code null} for
+     * values that cannot be stored on one log line.
+     */
+    static String normalise(String url) {
+        if (url == null) {
+            return null;
+        }
+        int fragment = url.indexOf('#');
+        String normalised = (fragment >= 0 ? url.substring(0, fragment) : url).trim();
+        if (normalised.isEmpty() || normalised.chars().anyMatch(Character::isWhitespace)) {
+            return null;
+        }
+        return normalised;
+    }
+
+    private void enqueue(Collection<String> urls, StringBuilder records) {
+        for (String url : urls) {
+            String normalised = normalise(url);
+            if (normalised == null || seen.size() >= maxPages || !seen.add(normalised)) {
+                continue;
+            }
+            pending.addLast(normalised);
+            records.append("Q ").append(normalised).append('\n');
+        }
+    }
+
+    /**
+     * Rebuilds state from the log and returns the length of its intact prefix.
+     */
+    private long replay() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+
+        Set<String> queued = new LinkedHashSet<>();
+        Set<String> settled = new HashSet<>();
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (line.length() < 3 || line.charAt(1) != ' ') {
+                continue;
+            }
+            String url = line.substring(2);
+            switch (line.charAt(0)) {
+                case 'Q' -> queued.add(url);
+                case 'D' -> {
+                    if (settled.add(url)) {
+                        completed++;
+                    }
+                }
+                case 'F' -> {
+                    if (settled.add(url)) {
+                        failed++;
+                    }
+                }
+                default -> {
+                    // Unknown record, skipped
+                }
+            }
+        }
+        seen.addAll(queued);
+        for (String url : queued) {
+            if (!settled.contains(url)) {
+                pending.addLast(url);
+            }
+        }
+        return end;
+    }
+
+    private void write(CharSequence records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(records));
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to crawl frontier " + file, e);
+        }
+    }
+
+    /**
+     * {@code pending} includes pages currently being visited.
+     */
+    record Progress(int seen, int pending, int completed, int failed) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.poundsaver.scraper.entity;
+
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
+import com.poundsaver.shared.enums.Retailer;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of a scrape job. Ids are assigned by the service, so {@link Persistable}
+ * tells Spring Data whether a save is an insert, which lets first writes batch without a
+ * lookup per row.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "scrape_jobs", indexes = {
+        @Index(name = "idx_scrape_jobs_status", columnList = "status"),
+        @Index(name = "idx_scrape_jobs_created_at", columnList = "createdAt")
+})
+public class ScrapeJob implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Retailer retailer;
+
+    @Column(nullable = false, length = 500)
+    private String searchQuery;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    private Integer productsScraped;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    private Long durationMs;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew;
+
+    public static ScrapeJob from(ScrapingJobDTO dto, LocalDateTime createdAt) {
+        ScrapeJob job = new ScrapeJob();
+        job.setId(dto.getJobId());
+        job.setRetailer(dto.getRetailer());
+        job.setSearchQuery(dto.getSearchQuery());
+        job.setStatus(dto.getStatus());
+        job.setProductsScraped(dto.getProductsScraped());
+        job.setErrorMessage(truncate(dto.getErrorMessage()));
+        job.setCreatedAt(createdAt);
+        job.setStartedAt(dto.getStartedAt());
+        job.setCompletedAt(dto.getCompletedAt());
+        job.setDurationMs(dto.getDurationMs());
+        return job;
+    }
+
+    public ScrapingJobDTO toDto() {
+        return ScrapingJobDTO.builder()
+                .jobId(id)
+                .retailer(retailer)
+                .searchQuery(searchQuery)
+                .status(status)
+                .productsScraped(productsScraped)
+                .errorMessage(errorMessage)
+                .startedAt(startedAt)
+                .completedAt(completedAt)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    public boolean isTerminal() {
+        return isTerminal(status);
+    }
+
+    public static boolean isTerminal(JobStatus status) {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Whether the next save should insert the row rather than merge it; decided by the writer
+     * just before the save is issued.
+     */
+    public void setNew(boolean isNew) {
+        this.isNew = isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,262 @@
+package com.poundsaver.scraper.fetch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.strategy.FieldSelector;
+import com.poundsaver.scraper.strategy.HttpFetchSpec;
+import com.poundsaver.scraper.strategy.ScraperStrategy;
+import com.poundsaver.scraper.strategy.TileScraper;
+import com.poundsaver.scraper.strategy.TileSelectors;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browserless fetch path for strategies with an {@link HttpFetchSpec}. Requests go through one
+ * shared {@link HttpClient}, which keeps connections to each retailer open between jobs, and
+ * the body is parsed in-process with jsoup or Jackson into the same tiles the browser would
+ * have read. Anything short of a clean result makes the caller fall back to Playwright. Both
+ * paths report {@code scraper_fetch_path_total} and {@code scraper_fetch_path_seconds} through
+ * {@link #record}, so their success rate and cost can be compared per retailer.
+ */
+@Slf4j
+@Component
+public class HttpFetcher {
+
+    public static final String HTTP = "http";
+    public static final String BROWSER = "browser";
+
+    private final ScraperProperties.HttpFetch settings;
+    private final ScraperProperties.Simulator simulator;
+    private final String userAgent;
+    private final PolitenessLimiter politeness;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient client;
+
+    public HttpFetcher(ScraperProperties properties, PolitenessLimiter politeness, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry) {
+        this.settings = properties.getHttpFetch();
+        this.simulator = properties.getSimulator();
+        this.userAgent = properties.getBrowserPool().getUserAgent();
+        this.politeness = politeness;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(settings.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public boolean supports(Retailer retailer, ScraperStrategy strategy) {
+        return settings.isEnabled()
+                && strategy instanceof TileScraper tileScraper
+                && tileScraper.httpFetch() != null
+                && !settings.getBrowserOnly().contains(retailer);
+    }
+
+    /**
+     * Fetches and parses {@code retailer}'s results for {@code query}. Returns {@code null} when
+     * the browser is needed instead: a transport error or unexpected status, a JS-only marker in
+     * the body, or nothing recognisable as a product. A 403 or 429 throws
+     * {@link ScrapingException}, since the browser would be refused as well. With a
+     * {@code tracker}, a results page whose tiles match the previous scrape of the query is
+     * not parsed and an empty list is returned.
+     */
+    public List<ProductDTO> fetch(Retailer retailer, TileScraper strategy, String query,
+                                  ScrapeFingerprints.Tracker tracker) {
+        HttpFetchSpec spec = strategy.httpFetch();
+        long start = System.nanoTime();
+        String outcome = "fallback";
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(simulator.rewrite(retailer, spec.searchUrl().apply(query))))
+                    .timeout(settings.getTimeout())
+                    .header("User-Agent", userAgent)
+                    .header("Accept", spec.isJson() ? "application/json" : "text/html,application/xhtml+xml")
+                    .header("Accept-Language", "en-GB,en;q=0.9")
+                    .GET()
+                    .build();
+            politeness.acquire(retailer);
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            int status = response.statusCode();
+            if (status == 403 || status == 429) {
+                outcome = "blocked";
+                politeness.recordBlocked(retailer, "http_" + status);
+                throw new ScrapingException(retailer + " refused the request (http_" + status + "): " + request.uri());
+            }
+            if (status / 100 != 2) {
+                log.debug("{} answered {} over HTTP, falling back to the browser: {}", retailer, status, request.uri());
+                return null;
+            }
+            politeness.recordSuccess(retailer);
+
+            String body = response.body();
+            DistributionSummary.builder("scraper_fetch_http_bytes")
+                    .description("Response size of browserless result page fetches")
+                    .baseUnit("bytes")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry)
+                    .record(body.length());
+            for (String marker : spec.jsOnlyMarkers()) {
+                if (body.contains(marker)) {
+                    log.debug("{} page needs JavaScript ({}), falling back to the browser", retailer, marker);
+                    return null;
+                }
+            }
+
+            List<Map<String, String>> tiles = spec.isJson()
+                    ? jsonTiles(body, spec)
+                    : htmlTiles(body, request.uri(), strategy.tileSelectors());
+            if (!tiles.isEmpty() && tracker != null && unchanged(retailer, request.uri().toString(), tiles, tracker)) {
+                log.info("{} results page unchanged since last scrape, skipping extraction: {}", retailer, request.uri());
+                outcome = "success";
+                return List.of();
+            }
+            List<ProductDTO> products = new ArrayList<>(tiles.size());
+            strategy.scrapeTiles(tiles, products::add);
+            if (products.isEmpty()) {
+                log.debug("No products in {} HTTP response ({} tiles), falling back to the browser", retailer, tiles.size());
+                return null;
+            }
+            outcome = "success";
+            return products;
+        } catch (IOException e) {
+            log.debug("HTTP fetch from {} failed, falling back to the browser: {}", retailer, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScrapingRejectedException("Interrupted while fetching from " + retailer);
+        } catch (ScrapingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} HTTP response, falling back to the browser: {}", retailer, e.getMessage());
+            return null;
+        } finally {
+            record(retailer, HTTP, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records one attempt on either fetch path. {@code outcome} is a metric tag such as
+     * {@code success}, {@code fallback} or {@code failed}.
+     */
+    public void record(Retailer retailer, String path, String outcome, long elapsedNanos) {
+        Counter.builder("scraper_fetch_path_total")
+                .description("Result page fetches by path (http or browser) and outcome")
+                .tags("retailer", retailer.name(), "path", path, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("scraper_fetch_path_seconds")
+                .description("Time spent fetching and reading a result page, by path")
+                .tags("retailer", retailer.name(), "path", path)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Checks {@code tiles} against the fingerprint the tracker holds for {@code url}, recording
+     * the new one. The fingerprint covers the extracted fields only, so markup churn around the
+     * tiles does not count as a change.
+     */
+    private boolean unchanged(Retailer retailer, String url, List<Map<String, String>> tiles,
+                              ScrapeFingerprints.Tracker tracker) {
+        StringBuilder fields = new StringBuilder();
+        for (Map<String, String> tile : tiles) {
+            new TreeMap<>(tile).forEach((name, value) ->
+                    fields.append(name).append('=').append(Objects.toString(value, "")).append('\u001f'));
+            fields.append('\u001e');
+        }
+        String fingerprint;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fields.toString().getBytes(StandardCharsets.UTF_8));
+            fingerprint = Base64.getEncoder().withoutPadding().encodeToString(digest) + ":" + tiles.size();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        boolean unchanged = fingerprint.equals(tracker.previousPage(url));
+        tracker.pageChecked(url, fingerprint, unchanged);
+        meterRegistry.counter("scraper_results_pages_total",
+                "retailer", retailer.name(), "outcome", unchanged ? "unchanged" : "changed").increment();
+        return unchanged;
+    }
+
+    /**
+     * Reads tiles the way the browser-side extraction script does: whitespace-collapsed text or
+     * the raw attribute of the first match, {@code null} when nothing matches.
+     */
+    private static List<Map<String, String>> htmlTiles(String body, URI uri, TileSelectors selectors) {
+        if (selectors == null) {
+            return List.of();
+        }
+        Document document = Jsoup.parse(body, uri.toString());
+        List<Map<String, String>> tiles = new ArrayList<>();
+        for (Element tile : document.select(selectors.tile())) {
+            if (selectors.maxTiles() > 0 && tiles.size() >= selectors.maxTiles()) {
+                break;
+            }
+            Map<String, String> fields = new HashMap<>();
+            selectors.fields().forEach((name, field) -> fields.put(name, read(tile, field)));
+            tiles.add(fields);
+        }
+        return tiles;
+    }
+
+    private static String read(Element tile, FieldSelector field) {
+        Element target = field.selector() == null || field.selector().isEmpty() ? tile : tile.selectFirst(field.selector());
+        if (target == null) {
+            return null;
+        }
+        if (field.attribute() != null) {
+            return target.hasAttr(field.attribute()) ? target.attr(field.attribute()) : null;
+        }
+        return target.text();
+    }
+
+    private List<Map<String, String>> jsonTiles(String body, HttpFetchSpec spec) throws IOException {
+        JsonNode items = objectMapper.readTree(body).at(spec.itemsPointer());
+        if (!items.isArray()) {
+            return List.of();
+        }
+        List<Map<String, String>> tiles = new ArrayList<>(items.size());
+        for (JsonNode item : items) {
+            Map<String, String> fields = new HashMap<>();
+            spec.fieldPointers().forEach((name, pointer) -> {
+                JsonNode value = item.at(pointer);
+                fields.put(name, value.isMissingNode() || value.isNull() ? null : value.asText());
+            });
+            tiles.add(fields);
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,212 @@
+package com.poundsaver.scraper.fingerprint;
+
+import com.microsoft.playwright.Page;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.util.ProductIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers what each (retailer, query) looked like on its last successful scrape so unchanged
+ * results pages can skip extraction and unchanged products are not re-published. Fingerprints
+ * are staged on a per-job {@link Tracker} and only committed once the job's records have been
+ * acknowledged, so a failed emission is retried in full next time. The store is an in-memory
+ * LRU; after a restart the first scrape of each query publishes everything.
+ */
+@Component
+public class ScrapeFingerprints {
+
+    private final ScraperProperties.Fingerprints settings;
+    private final Map<Page, Tracker> active = new ConcurrentHashMap<>();
+    private final Map<QueryKey, Snapshot> snapshots;
+    private final MeterRegistry meterRegistry;
+
+    public ScrapeFingerprints(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getFingerprints();
+        this.meterRegistry = meterRegistry;
+        int maxQueries = settings.getMaxQueries();
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryKey, Snapshot> eldest) {
+                return size() > maxQueries;
+            }
+        };
+    }
+
+    /**
+     * Starts tracking {@code page} for one scrape job. Returns {@code null} when fingerprinting
+     * is disabled.
+     */
+    public Tracker begin(Page page, Retailer retailer, String query) {
+        Tracker tracker = track(page, retailer, query);
+        if (tracker != null) {
+            active.put(page, tracker);
+        }
+        return tracker;
+    }
+
+    /**
+     * Starts tracking a scrape job that reads its results without a browser page, such as a
+     * browserless HTTP fetch. Returns {@code null} when fingerprinting is disabled.
+     */
+    public Tracker begin(Retailer retailer, String query) {
+        return track(null, retailer, query);
+    }
+
+    private Tracker track(Page page, Retailer retailer, String query) {
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        QueryKey key = new QueryKey(retailer, query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " "));
+        Snapshot previous;
+        synchronized (snapshots) {
+            previous = snapshots.get(key);
+        }
+        return new Tracker(page, key, previous != null ? previous : Snapshot.EMPTY);
+    }
+
+    public Tracker trackerFor(Page page) {
+        return active.get(page);
+    }
+
+    public void end(Tracker tracker) {
+        if (tracker != null && tracker.page != null) {
+            active.remove(tracker.page, tracker);
+        }
+    }
+
+    /**
+     * Stages {@code product}'s fingerprint on the tracker and returns whether it is new or
+     * differs from the last committed scrape.
+     */
+    public boolean changed(Tracker tracker, ProductDTO product) {
+        if (tracker == null) {
+            return true;
+        }
+        String key = ProductIdentity.idFor(product);
+        String fingerprint = fingerprint(product);
+        tracker.products.put(key, fingerprint);
+        boolean changed = !fingerprint.equals(tracker.previous.products().get(key));
+        counter("scraper_products_fingerprinted_total", tracker.key.retailer().name(), changed ? "changed" : "unchanged")
+                .increment();
+        return changed;
+    }
+
+    /**
+     * Makes the tracker's fingerprints the baseline for the next scrape of the same query.
+     */
+    public void commit(Tracker tracker) {
+        if (tracker == null) {
+            return;
+        }
+        Map<String, String> pages = new HashMap<>(tracker.previous.pages());
+        pages.putAll(tracker.pages);
+        // Products on unchanged pages were not extracted, so carry their fingerprints forward
+        Map<String, String> products = new HashMap<>(tracker.pagesUnchanged > 0 ? tracker.previous.products() : Map.of());
+        products.putAll(tracker.products);
+        synchronized (snapshots) {
+            snapshots.put(tracker.key, new Snapshot(Map.copyOf(pages), Map.copyOf(products)));
+        }
+    }
+
+    private Counter counter(String name, String retailer, String outcome) {
+        return Counter.builder(name)
+                .description("Extracted products by whether they differ from the previous scrape")
+                .tags("retailer", retailer, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String fingerprint(ProductDTO product) {
+        return Base64.getEncoder().withoutPadding().encodeToString(contentDigest(product));
+    }
+
+    /**
+     * SHA-256 over every published field of {@code product} except its timestamps, so two
+     * scrapes of an unchanged product produce the same digest.
+     */
+    public static byte[] contentDigest(ProductDTO product) {
+        StringBuilder fields = new StringBuilder();
+        for (Object field : new Object[] {
+                product.getRetailer(), product.getName(), product.getBrand(), product.getCategory(), decimal(product.getPrice()),
+                decimal(product.getPricePerUnit()), product.getUnit(), decimal(product.getLoyaltyPrice()),
+                product.getLoyaltyScheme(), product.getQuantity(), product.getSize(), product.getInStock(),
+                product.getImageUrl(), product.getProductUrl(), product.getEan()}) {
+            fields.append(Objects.toString(field, "")).append('\u001f');
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(fields.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decimal(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+
+    private record QueryKey(Retailer retailer, String query) {
+    }
+
+    private record Snapshot(Map<String, String> pages, Map<String, String> products) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+
+    /**
+     * Fingerprint state for one job. Page and product checks both happen on the thread holding
+     * the browser lease, so no synchronization is needed.
+     */
+    public static final class Tracker {
+        private final Page page;
+        private final QueryKey key;
+        private final Snapshot previous;
+        private final Map<String, String> pages = new HashMap<>();
+        private final Map<String, String> products = new HashMap<>();
+        private int pagesChecked;
+        private int pagesUnchanged;
+
+        private Tracker(Page page, QueryKey key, Snapshot previous) {
+            this.page = page;
+            this.key = key;
+            this.previous = previous;
+        }
+
+        public String previousPage(String url) {
+            return previous.pages().get(url);
+        }
+
+        public void pageChecked(String url, String fingerprint, boolean unchanged) {
+            pages.put(url, fingerprint);
+            pagesChecked++;
+            if (unchanged) {
+                pagesUnchanged++;
+            }
+        }
+
+        /**
+         * True when every results page this job read matched the previous scrape, in which
+         * case nothing was extracted.
+         */
+        public boolean unchanged() {
+            return pagesChecked > 0 && pagesUnchanged == pagesChecked;
+        }
+
+        public int knownProducts() {
+            return previous.products().size();
+        }
+    }
+}
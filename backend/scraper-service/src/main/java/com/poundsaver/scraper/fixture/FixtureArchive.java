@@ -0,0 +1,235 @@
+package com.poundsaver.scraper.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Route;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Record-and-replay of retailer traffic. In record mode every response a scrape receives is
+ * written under {@code <directory>/<version>/<RETAILER>/<query>/}; a recording in which a
+ * successful response's body could not be read is refused rather than saved incomplete. In
+ * replay mode the same responses are served back through {@code BrowserContext.route} with
+ * optional injected latency, and anything that was not recorded is aborted so replays never
+ * touch the network.
+ */
+@Slf4j
+@Component
+public class FixtureArchive {
+
+    private static final String INDEX_FILE = "index.json";
+    private static final String BODIES_DIR = "bodies";
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private final ScraperProperties.Fixtures settings;
+    private final ObjectMapper objectMapper;
+
+    public FixtureArchive(ScraperProperties properties, ObjectMapper objectMapper) {
+        this.settings = properties.getFixtures();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * True when sessions record or replay, which binds a browser context to a single query.
+     */
+    public boolean isActive() {
+        return settings.getMode() != ScraperProperties.Fixtures.Mode.OFF;
+    }
+
+    public Session open(BrowserContext context, Retailer retailer, String query) {
+        return switch (settings.getMode()) {
+            case OFF -> Session.NONE;
+            case RECORD -> record(context, retailer, query);
+            case REPLAY -> replay(context, retailer, query);
+        };
+    }
+
+    private Session record(BrowserContext context, Retailer retailer, String query) {
+        // Bodies are read as each response arrives; Chromium drops them once the page moves on
+        List<Captured> responses = Collections.synchronizedList(new ArrayList<>());
+        context.onResponse(response -> responses.add(capture(response)));
+
+        return () -> {
+            List<Captured> captured;
+            synchronized (responses) {
+                captured = List.copyOf(responses);
+            }
+            List<String> missing = captured.stream()
+                    .filter(response -> response.body() == null && response.status() / 100 == 2)
+                    .map(Captured::url)
+                    .toList();
+            if (!missing.isEmpty()) {
+                throw new ScrapingException("Fixture for " + retailer + " '" + query + "' not written, "
+                        + missing.size() + " response bodies could not be read: " + missing);
+            }
+
+            Path sessionDir = sessionDir(retailer, query);
+            Path bodiesDir = sessionDir.resolve(BODIES_DIR);
+            List<FixtureEntry> entries = new ArrayList<>(captured.size());
+
+            try {
+                Files.createDirectories(bodiesDir);
+                for (Captured response : captured) {
+                    String bodyFile = null;
+                    if (response.body() != null) {
+                        bodyFile = BODIES_DIR + "/" + sha256(response.method() + " " + response.url() + " " + entries.size());
+                        Files.write(sessionDir.resolve(bodyFile), response.body());
+                    }
+                    entries.add(new FixtureEntry(response.method(), response.url(), response.status(),
+                            response.headers(), bodyFile));
+                }
+
+                FixtureIndex index = new FixtureIndex(FixtureIndex.FORMAT_VERSION, retailer.name(), query,
+                        LocalDateTime.now(), entries);
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(sessionDir.resolve(INDEX_FILE).toFile(), index);
+                log.info("Recorded {} responses for {} '{}' to {}", entries.size(), retailer, query, sessionDir);
+            } catch (IOException e) {
+                throw new ScrapingException("Failed to write fixture for " + retailer + " '" + query + "'", e);
+            }
+        };
+    }
+
+    private Session replay(BrowserContext context, Retailer retailer, String query) {
+        Path sessionDir = sessionDir(retailer, query);
+        FixtureIndex index;
+        try {
+            index = objectMapper.readValue(sessionDir.resolve(INDEX_FILE).toFile(), FixtureIndex.class);
+        } catch (IOException e) {
+            throw new ScrapingException("No replayable fixture for " + retailer + " '" + query + "' in " + sessionDir, e);
+        }
+        if (index.formatVersion() != FixtureIndex.FORMAT_VERSION) {
+            throw new ScrapingException("Unsupported fixture format " + index.formatVersion() + " in " + sessionDir);
+        }
+
+        Map<String, ArrayDeque<FixtureEntry>> byRequest = new HashMap<>();
+        for (FixtureEntry entry : index.entries()) {
+            byRequest.computeIfAbsent(key(entry.method(), entry.url()), k -> new ArrayDeque<>()).add(entry);
+        }
+
+        context.route("**/*", route -> fulfill(route, byRequest, sessionDir));
+        return Session.NONE;
+    }
+
+    private void fulfill(Route route, Map<String, ArrayDeque<FixtureEntry>> byRequest, Path sessionDir) {
+        ArrayDeque<FixtureEntry> recorded = byRequest.get(key(route.request().method(), route.request().url()));
+        if (recorded == null || recorded.isEmpty()) {
+            log.debug("No fixture for {} {}, aborting", route.request().method(), route.request().url());
+            route.abort("internetdisconnected");
+            return;
+        }
+
+        // Repeated requests for the same URL replay in recorded order, then keep the last one
+        FixtureEntry entry = recorded.size() > 1 ? recorded.poll() : recorded.peek();
+        injectLatency();
+
+        Route.FulfillOptions options = new Route.FulfillOptions()
+                .setStatus(entry.status())
+                .setHeaders(entry.headers());
+        if (entry.bodyFile() != null) {
+            try {
+                options.setBodyBytes(Files.readAllBytes(sessionDir.resolve(entry.bodyFile())));
+            } catch (IOException e) {
+                log.warn("Missing fixture body {}: {}", entry.bodyFile(), e.getMessage());
+                route.abort("failed");
+                return;
+            }
+        }
+        route.fulfill(options);
+    }
+
+    private void injectLatency() {
+        long min = settings.getReplayLatencyMin().toMillis();
+        long max = Math.max(min, settings.getReplayLatencyMax().toMillis());
+        if (max <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path sessionDir(Retailer retailer, String query) {
+        return Paths.get(settings.getDirectory(), settings.getVersion(), retailer.name(), slug(query));
+    }
+
+    private static Captured capture(Response response) {
+        byte[] body = null;
+        if (response.status() < 300 || response.status() >= 400) {
+            try {
+                body = response.body();
+            } catch (RuntimeException e) {
+                log.debug("Body unavailable for {}: {}", response.url(), e.getMessage());
+            }
+        }
+        return new Captured(response.request().method(), response.url(), response.status(),
+                replayableHeaders(response.headers()), body);
+    }
+
+    private static Map<String, String> replayableHeaders(Map<String, String> headers) {
+        Map<String, String> kept = new HashMap<>();
+        headers.forEach((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                kept.put(name, value);
+            }
+        });
+        return kept;
+    }
+
+    private static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+    private static String slug(String query) {
+        String slug = query.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+        return slug.isEmpty() ? "_" : slug;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Captured(String method, String url, int status, Map<String, String> headers, byte[] body) {
+    }
+
+    /**
+     * Per-job handle; {@link #save()} persists a recording and is a no-op otherwise.
+     */
+    @FunctionalInterface
+    public interface Session {
+        Session NONE = () -> {
+        };
+
+        void save();
+    }
+}
@@ -0,0 +1,6 @@
+package com.poundsaver.scraper.fixture;
+
+import java.util.Map;
+
+public record FixtureEntry(String method, String url, int status, Map<String, String> headers, String bodyFile) {
+}
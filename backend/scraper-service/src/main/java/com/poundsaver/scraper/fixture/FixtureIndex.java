@@ -0,0 +1,15 @@
+package com.poundsaver.scraper.fixture;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * On-disk index of one recorded (retailer, query) session. {@code formatVersion} describes this
+ * file layout; the archive version lives in the directory name so re-recordings can sit next
+ * to older ones.
+ */
+public record FixtureIndex(int formatVersion, String retailer, String query, LocalDateTime recordedAt,
+                           List<FixtureEntry> entries) {
+
+    public static final int FORMAT_VERSION = 1;
+}
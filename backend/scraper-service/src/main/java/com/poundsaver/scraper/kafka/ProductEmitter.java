@@ -0,0 +1,173 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.util.ProductIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes a job's products to {@value #TOPIC}. Records are keyed by {@link ProductIdentity} so
+ * every price observation for a product lands on the same partition, and a job's result
+ * completes only once the broker has acknowledged (or rejected) every record. Records identical
+ * to one acknowledged recently are dropped by the {@link RecentEmissionFilter}. Batching,
+ * compression and idempotence are producer settings in {@code spring.kafka.producer}.
+ */
+@Slf4j
+@Component
+public class ProductEmitter {
+
+    public static final String TOPIC = "product-scraped";
+
+    private final KafkaTemplate<String, ProductDTO> kafkaTemplate;
+    private final RecentEmissionFilter recentEmissions;
+    private final int maxInFlight;
+    private final MeterRegistry meterRegistry;
+
+    public ProductEmitter(KafkaTemplate<String, ProductDTO> kafkaTemplate, RecentEmissionFilter recentEmissions,
+                          ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.recentEmissions = recentEmissions;
+        this.maxInFlight = Math.max(1, properties.getEmission().getMaxInFlight());
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts a job's emission. Products are sent as they are handed to {@link Stream#send},
+     * which blocks once {@code scraper.emission.max-in-flight} records await acknowledgement.
+     */
+    public Stream open(Retailer retailer) {
+        return new Stream(retailer);
+    }
+
+    private void record(Retailer retailer, EmissionResult result, long elapsedNanos) {
+        String tag = retailer.name();
+        Counter.builder("scraper_kafka_records_total")
+                .description("Product records sent to Kafka")
+                .tags("retailer", tag, "outcome", "acked")
+                .register(meterRegistry)
+                .increment(result.acknowledged());
+        Counter.builder("scraper_kafka_records_total")
+                .description("Product records sent to Kafka")
+                .tags("retailer", tag, "outcome", "failed")
+                .register(meterRegistry)
+                .increment(result.failed());
+        Counter.builder("scraper_emissions_suppressed_total")
+                .description("Product records not sent because an identical record was acknowledged recently")
+                .tag("retailer", tag)
+                .register(meterRegistry)
+                .increment(result.suppressed());
+        DistributionSummary.builder("scraper_kafka_job_bytes")
+                .description("Serialized product bytes acknowledged per scrape job")
+                .baseUnit("bytes")
+                .tag("retailer", tag)
+                .register(meterRegistry)
+                .record(result.bytes());
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        if (seconds > 0 && result.acknowledged() + result.failed() > 0) {
+            DistributionSummary.builder("scraper_kafka_job_throughput")
+                    .description("Product records acknowledged per second for a scrape job")
+                    .baseUnit("records/s")
+                    .tag("retailer", tag)
+                    .register(meterRegistry)
+                    .record(result.acknowledged() / seconds);
+        }
+    }
+
+    public record EmissionResult(int acknowledged, int failed, int suppressed, long bytes) {
+    }
+
+    /**
+     * One job's records in flight. {@link #send} is called from the scraping thread only, and
+     * {@link #finish} once after the last send.
+     */
+    public final class Stream {
+        private final Retailer retailer;
+        private final Timer ackTimer;
+        private final Semaphore window = new Semaphore(maxInFlight);
+        private final AtomicInteger failed = new AtomicInteger();
+        private int attempted;
+        private final AtomicLong bytes = new AtomicLong();
+        private final List<CompletableFuture<?>> acks = new ArrayList<>();
+        private final long start = System.nanoTime();
+        private int suppressed;
+
+        private Stream(Retailer retailer) {
+            this.retailer = retailer;
+            this.ackTimer = Timer.builder("scraper_kafka_ack_seconds")
+                    .description("Time from send until the broker acknowledged a product record")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+        }
+
+        public void send(ProductDTO product) {
+            if (product == null) {
+                return;
+            }
+            byte[] digest = recentEmissions.isEnabled() ? ScrapeFingerprints.contentDigest(product) : null;
+            if (digest != null && recentEmissions.mightContain(digest)) {
+                suppressed++;
+                return;
+            }
+
+            // Every send completes within delivery.timeout.ms, so this cannot wait forever
+            window.acquireUninterruptibly();
+            attempted++;
+            long sentAt = System.nanoTime();
+            CompletableFuture<?> ack;
+            try {
+                ack = kafkaTemplate.send(TOPIC, ProductIdentity.idFor(product), product)
+                        .whenComplete((result, ex) -> {
+                            window.release();
+                            ackTimer.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                            if (ex != null) {
+                                failed.incrementAndGet();
+                                log.warn("Kafka rejected product {} from {}: {}", product.getName(), retailer, ex.getMessage());
+                            } else {
+                                if (digest != null) {
+                                    recentEmissions.add(digest);
+                                }
+                                bytes.addAndGet(Math.max(0, result.getRecordMetadata().serializedValueSize()));
+                            }
+                        });
+            } catch (Exception e) {
+                // Serialization or metadata failures are thrown from send() itself
+                window.release();
+                failed.incrementAndGet();
+                log.warn("Failed to send product {} from {}: {}", product.getName(), retailer, e.getMessage());
+                return;
+            }
+            acks.add(ack.exceptionally(ex -> null));
+        }
+
+        public CompletableFuture<EmissionResult> finish() {
+            int sent = attempted;
+            int skipped = suppressed;
+            if (sent == 0 && skipped == 0) {
+                return CompletableFuture.completedFuture(new EmissionResult(0, 0, 0, 0L));
+            }
+            return CompletableFuture.allOf(acks.toArray(new CompletableFuture[0]))
+                    .thenApply(v -> {
+                        EmissionResult result = new EmissionResult(sent - failed.get(), failed.get(), skipped, bytes.get());
+                        record(retailer, result, System.nanoTime() - start);
+                        return result;
+                    });
+        }
+    }
+}
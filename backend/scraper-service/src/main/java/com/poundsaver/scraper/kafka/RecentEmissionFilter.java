@@ -0,0 +1,122 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time-windowed bloom filter over the content digests of recently acknowledged product
+ * records. Two generations each cover half the window; a digest counts as seen if either
+ * holds it, so an identical record is suppressed for between half and all of the window and
+ * then published again, which also refreshes the product's last-updated time downstream.
+ * A generation is retired early once it holds {@code expectedProducts} digests so the false
+ * positive rate stays near its configured value. Memory is fixed at two bit arrays.
+ */
+@Component
+public class RecentEmissionFilter {
+
+    private final ScraperProperties.EmissionFilter settings;
+    private final int bits;
+    private final int hashes;
+    private final long generationNanos;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public RecentEmissionFilter(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getEmissionFilter();
+        int expected = Math.max(1, settings.getExpectedProducts());
+        double rate = Math.min(0.5, Math.max(1e-9, settings.getFalsePositiveRate()));
+        long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expected * Math.log(2)));
+        this.generationNanos = settings.getWindow().toNanos() / 2;
+        this.current = new Generation(bits);
+        this.previous = new Generation(bits);
+
+        Gauge.builder("scraper_emission_filter_entries", this, filter -> filter.current.insertions.get() + filter.previous.insertions.get())
+                .description("Product digests held by the recent emission filter")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * True if a record with this digest was probably acknowledged within the window.
+     */
+    public boolean mightContain(byte[] digest) {
+        if (!settings.isEnabled()) {
+            return false;
+        }
+        rotateIfDue();
+        long h1 = hash(digest, 0);
+        long h2 = hash(digest, 8);
+        return current.contains(h1, h2) || previous.contains(h1, h2);
+    }
+
+    public void add(byte[] digest) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        rotateIfDue();
+        current.add(hash(digest, 0), hash(digest, 8));
+    }
+
+    private void rotateIfDue() {
+        Generation generation = current;
+        if (System.nanoTime() - generation.startedAt < generationNanos
+                && generation.insertions.get() < settings.getExpectedProducts()) {
+            return;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bits);
+            }
+        }
+    }
+
+    private static long hash(byte[] digest, int offset) {
+        // The digest is SHA-256, so any 8 bytes are already uniformly distributed
+        return ByteBuffer.wrap(digest, offset, 8).getLong();
+    }
+
+    private final class Generation {
+        private final AtomicLongArray words;
+        private final AtomicInteger insertions = new AtomicInteger();
+        private final long startedAt = System.nanoTime();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        private boolean contains(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = (int) Math.floorMod(h1 + i * h2, (long) bits);
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word;
+                while (((word = words.get(index)) & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    // Retry until this bit is set by us or another thread
+                }
+            }
+            insertions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.shared.enums.Retailer;
+
+/**
+ * A request for whichever replica owns {@code retailer}'s partition to run a scrape job.
+ * {@code origin} is the instance that registered the job and expects its status updates.
+ */
+public record ScrapeCommand(String jobId, Retailer retailer, String searchQuery, String origin) {
+}
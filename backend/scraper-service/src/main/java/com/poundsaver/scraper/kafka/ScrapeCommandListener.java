@@ -0,0 +1,40 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.service.PlaywrightScraperService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes the command topics when sharding is enabled. Commands are shared across replicas
+ * through one consumer group, so each retailer's partition is owned by one replica at a time;
+ * a group starting without committed offsets skips the backlog, whose origins have long timed
+ * the jobs out. Job updates are read by every replica under its own group and kept only by
+ * the origin.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScrapeCommandListener {
+
+    private final PlaywrightScraperService scraperService;
+    private final ScrapeCommandPublisher commandPublisher;
+
+    @KafkaListener(id = "scrape-commands", topics = ScrapeCommandPublisher.COMMANDS_TOPIC,
+            groupId = "scraper-service-commands", autoStartup = "${scraper.sharding.enabled:false}",
+            properties = "auto.offset.reset=latest")
+    public void onCommand(ScrapeCommand command) {
+        log.debug("Received scrape command {} for {} from {}", command.jobId(), command.retailer(), command.origin());
+        scraperService.execute(command);
+    }
+
+    @KafkaListener(id = "scrape-job-updates", topics = ScrapeCommandPublisher.UPDATES_TOPIC,
+            groupId = "scraper-job-updates-#{@scrapeCommandPublisher.instanceId}",
+            autoStartup = "${scraper.sharding.enabled:false}")
+    public void onUpdate(ScrapeJobUpdate update) {
+        if (commandPublisher.getInstanceId().equals(update.origin())) {
+            scraperService.onRemoteUpdate(update.job());
+        }
+    }
+}
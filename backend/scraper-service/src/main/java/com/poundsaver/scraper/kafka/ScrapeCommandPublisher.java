@@ -0,0 +1,71 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends scrape commands to {@value #COMMANDS_TOPIC}, keyed by retailer so each retailer's
+ * jobs are consumed by a single replica, and sends the executing replica's job updates back
+ * to the origin on {@value #UPDATES_TOPIC}, keyed by job ID so they arrive in order.
+ */
+@Slf4j
+@Component
+public class ScrapeCommandPublisher {
+
+    public static final String COMMANDS_TOPIC = "scrape-commands";
+    public static final String UPDATES_TOPIC = "scrape-job-updates";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String instanceId;
+
+    public ScrapeCommandPublisher(KafkaTemplate<String, Object> kafkaTemplate, ScraperProperties properties) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.instanceId = instanceId(properties);
+    }
+
+    /**
+     * Names this replica's job updates and search events consumer groups, so it must survive
+     * restarts whenever either is joined; a random ID would leave an orphaned group behind on
+     * every start.
+     */
+    private static String instanceId(ScraperProperties properties) {
+        String configured = properties.getSharding().getInstanceId();
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        if (properties.getSharding().isEnabled() || properties.getPrewarm().isEnabled()) {
+            throw new IllegalStateException("scraper.sharding.instance-id (SCRAPER_INSTANCE_ID) must be set to a stable, "
+                    + "per-replica value when sharding or pre-warming is enabled");
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public CompletableFuture<?> dispatch(ScrapingJobDTO job) {
+        ScrapeCommand command = new ScrapeCommand(job.getJobId(), job.getRetailer(), job.getSearchQuery(), instanceId);
+        return kafkaTemplate.send(COMMANDS_TOPIC, job.getRetailer().name(), command);
+    }
+
+    /**
+     * Sends the job's current state to {@code origin}. The DTO is serialized before this
+     * returns, so callers may keep mutating it.
+     */
+    public void report(String origin, ScrapingJobDTO job) {
+        kafkaTemplate.send(UPDATES_TOPIC, job.getJobId(), new ScrapeJobUpdate(origin, job))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to report job {} status {} to {}: {}",
+                                job.getJobId(), job.getStatus(), origin, ex.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,10 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+
+/**
+ * A state change of a job run on behalf of another replica, addressed to the job's
+ * {@code origin} instance.
+ */
+public record ScrapeJobUpdate(String origin, ScrapingJobDTO job) {
+}
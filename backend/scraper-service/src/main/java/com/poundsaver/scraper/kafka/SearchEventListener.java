@@ -0,0 +1,31 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.prewarm.QueryHeavyHitters;
+import com.poundsaver.shared.dto.SearchEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Feeds product-service searches into the pre-warm sketch. Every replica reads the whole
+ * topic under its own group, named after its configured instance ID, so whichever one wins
+ * the leader lock already knows the demand.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchEventListener {
+
+    private final QueryHeavyHitters heavyHitters;
+
+    @KafkaListener(id = "search-queries", topics = "search-queries",
+            groupId = "scraper-prewarm-#{@scrapeCommandPublisher.instanceId}",
+            autoStartup = "${scraper.prewarm.enabled:true}")
+    public void onSearch(SearchEventDTO event) {
+        if (event.getQuery() == null || event.getQuery().isBlank()) {
+            return;
+        }
+        heavyHitters.record(event.getQuery().trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " "));
+    }
+}
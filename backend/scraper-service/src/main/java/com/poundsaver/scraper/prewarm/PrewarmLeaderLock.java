@@ -0,0 +1,99 @@
+package com.poundsaver.scraper.prewarm;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Session-level Postgres advisory lock electing the one replica that schedules pre-warm
+ * scrapes. The winning replica keeps the connection that took the lock for as long as it
+ * leads; if that session dies Postgres releases the lock and another replica takes over on
+ * its next attempt.
+ */
+@Slf4j
+@Component
+public class PrewarmLeaderLock {
+
+    private final DataSource dataSource;
+    private final long lockKey;
+    private Connection connection;
+
+    public PrewarmLeaderLock(DataSource dataSource, ScraperProperties properties) {
+        this.dataSource = dataSource;
+        this.lockKey = properties.getPrewarm().getLockKey();
+    }
+
+    /**
+     * True if this replica holds the lock, taking it first if it is free.
+     */
+    public synchronized boolean tryAcquire() {
+        if (connection != null) {
+            try {
+                if (connection.isValid(2)) {
+                    return true;
+                }
+            } catch (SQLException e) {
+                // Treated as a lost session below
+            }
+            log.warn("Lost the pre-warm leader lock session");
+            closeQuietly(connection);
+            connection = null;
+        }
+
+        Connection candidate = null;
+        try {
+            candidate = dataSource.getConnection();
+            candidate.setAutoCommit(true);
+            if (query(candidate, "SELECT pg_try_advisory_lock(?)")) {
+                log.info("Acquired the pre-warm leader lock");
+                connection = candidate;
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not try the pre-warm leader lock: {}", e.getMessage());
+        }
+        closeQuietly(candidate);
+        return false;
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            query(connection, "SELECT pg_advisory_unlock(?)");
+        } catch (SQLException e) {
+            log.debug("Failed to release the pre-warm leader lock: {}", e.getMessage());
+        }
+        closeQuietly(connection);
+        connection = null;
+    }
+
+    private boolean query(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setLong(1, lockKey);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Nothing left to do with it
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.poundsaver.scraper.prewarm;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.repository.ScrapeJobRepository;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.scheduling.ScrapeScheduler;
+import com.poundsaver.scraper.service.PlaywrightScraperService;
+import com.poundsaver.shared.enums.JobStatus;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most searched queries fresh so users rarely wait for a browser. On each tick the
+ * replica holding the leader lock takes the top queries from {@link QueryHeavyHitters}, finds
+ * the (retailer, query) pairs whose last completed scrape is older than the retailer's
+ * freshness target, and starts the most valuable ones (popularity times staleness) only
+ * where a retailer lane is idle and its politeness budget has room.
+ */
+@Slf4j
+@Component
+public class PrewarmScheduler {
+
+    private final ScraperProperties.Prewarm settings;
+    private final QueryHeavyHitters heavyHitters;
+    private final PrewarmLeaderLock leaderLock;
+    private final ScrapeJobRepository jobRepository;
+    private final ScrapeScheduler scrapeScheduler;
+    private final PolitenessLimiter politeness;
+    private final PlaywrightScraperService scraperService;
+    private final Map<Retailer, Counter> started = new EnumMap<>(Retailer.class);
+    private volatile boolean leader;
+
+    public PrewarmScheduler(ScraperProperties properties, QueryHeavyHitters heavyHitters, PrewarmLeaderLock leaderLock,
+                            ScrapeJobRepository jobRepository, ScrapeScheduler scrapeScheduler,
+                            PolitenessLimiter politeness, PlaywrightScraperService scraperService,
+                            MeterRegistry meterRegistry) {
+        this.settings = properties.getPrewarm();
+        this.heavyHitters = heavyHitters;
+        this.leaderLock = leaderLock;
+        this.jobRepository = jobRepository;
+        this.scrapeScheduler = scrapeScheduler;
+        this.politeness = politeness;
+        this.scraperService = scraperService;
+        for (Retailer retailer : Retailer.values()) {
+            started.put(retailer, Counter.builder("scraper_prewarm_jobs_total")
+                    .description("Background scrapes started to keep popular queries fresh")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("scraper_prewarm_leader", this, scheduler -> scheduler.leader ? 1 : 0)
+                .description("1 if this replica holds the pre-warm leader lock")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.prewarm.interval-ms:60000}",
+            initialDelayString = "${scraper.prewarm.interval-ms:60000}")
+    public void tick() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        leader = leaderLock.tryAcquire();
+        if (!leader) {
+            return;
+        }
+
+        List<QueryHeavyHitters.Hit> hot = heavyHitters.top(settings.getTopQueries(), settings.getMinSearches());
+        if (hot.isEmpty()) {
+            return;
+        }
+
+        List<Candidate> candidates = staleCandidates(hot);
+        int budget = Math.min(settings.getMaxJobsPerTick(), scrapeScheduler.idleWorkers());
+        Map<Retailer, Integer> lanes = new EnumMap<>(Retailer.class);
+        Map<Retailer, List<String>> batches = new EnumMap<>(Retailer.class);
+        for (Candidate candidate : candidates) {
+            if (budget <= 0) {
+                break;
+            }
+            Retailer retailer = candidate.retailer();
+            int idle = lanes.computeIfAbsent(retailer, r ->
+                    politeness.estimateWait(r).isZero() ? scrapeScheduler.idleSlots(r) : 0);
+            if (idle <= 0) {
+                continue;
+            }
+            lanes.put(retailer, idle - 1);
+            budget--;
+
+            log.debug("Pre-warming '{}' at {} (priority {})", candidate.query(), retailer, candidate.priority());
+            batches.computeIfAbsent(retailer, r -> new ArrayList<>()).add(candidate.query());
+            started.get(retailer).increment();
+        }
+
+        // One batch per retailer so its queries share warm browser contexts
+        batches.forEach((retailer, queries) -> scraperService.scrapeRetailerBatch(retailer, queries)
+                .exceptionally(ex -> {
+                    log.warn("Pre-warm batch for {} failed: {}", retailer, ex.getMessage());
+                    return List.of();
+                }));
+    }
+
+    private List<Candidate> staleCandidates(List<QueryHeavyHitters.Hit> hot) {
+        List<String> queries = hot.stream().map(QueryHeavyHitters.Hit::query).toList();
+        Map<String, LocalDateTime> lastScraped = new HashMap<>();
+        for (Object[] row : jobRepository.findLastCompleted(queries, JobStatus.COMPLETED)) {
+            lastScraped.put(row[0] + "|" + row[1], (LocalDateTime) row[2]);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Candidate> candidates = new ArrayList<>();
+        for (QueryHeavyHitters.Hit hit : hot) {
+            for (Retailer retailer : Retailer.values()) {
+                Duration freshness = settings.freshnessFor(retailer);
+                LocalDateTime last = lastScraped.get(retailer + "|" + hit.query());
+                if (last != null && Duration.between(last, now).compareTo(freshness) < 0) {
+                    continue;
+                }
+                // Never-scraped pairs rank as if they were two freshness periods old
+                double staleness = last == null ? 2.0
+                        : (double) Duration.between(last, now).toMillis() / Math.max(1, freshness.toMillis());
+                candidates.add(new Candidate(retailer, hit.query(), hit.count() * staleness));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::priority).reversed());
+        return candidates;
+    }
+
+    private record Candidate(Retailer retailer, String query, double priority) {
+    }
+}
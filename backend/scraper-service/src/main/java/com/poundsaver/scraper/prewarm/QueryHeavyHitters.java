@@ -0,0 +1,104 @@
+package com.poundsaver.scraper.prewarm;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch of the most searched queries. It tracks at most
+ * {@code sketchCapacity} queries; a new query evicts the least counted one and inherits its
+ * count as the bound on its own overestimate. Counts halve every {@code halfLife} so the
+ * ranking follows recent demand rather than all-time totals.
+ */
+@Component
+public class QueryHeavyHitters {
+
+    private final int capacity;
+    private final long halfLifeNanos;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private long decayedAt = System.nanoTime();
+
+    public QueryHeavyHitters(ScraperProperties properties, MeterRegistry meterRegistry) {
+        ScraperProperties.Prewarm settings = properties.getPrewarm();
+        this.capacity = Math.max(1, settings.getSketchCapacity());
+        this.halfLifeNanos = settings.getHalfLife().toNanos();
+        Gauge.builder("scraper_prewarm_tracked_queries", this, sketch -> {
+                    synchronized (sketch) {
+                        return sketch.counters.size();
+                    }
+                })
+                .description("Distinct search queries held by the heavy-hitters sketch")
+                .register(meterRegistry);
+    }
+
+    public synchronized void record(String query) {
+        decayIfDue(System.nanoTime());
+        Counter counter = counters.get(query);
+        if (counter != null) {
+            counter.count++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(query, new Counter(1, 0));
+            return;
+        }
+
+        Map.Entry<String, Counter> min = null;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.getValue().count) {
+                min = entry;
+            }
+        }
+        counters.remove(min.getKey());
+        counters.put(query, new Counter(min.getValue().count + 1, min.getValue().count));
+    }
+
+    /**
+     * Up to {@code limit} queries whose guaranteed count (count minus overestimate) is at
+     * least {@code minCount}, most searched first.
+     */
+    public synchronized List<Hit> top(int limit, double minCount) {
+        decayIfDue(System.nanoTime());
+        List<Hit> hits = new ArrayList<>();
+        counters.forEach((query, counter) -> {
+            if (counter.count - counter.error >= minCount) {
+                hits.add(new Hit(query, counter.count));
+            }
+        });
+        hits.sort((a, b) -> Double.compare(b.count(), a.count()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void decayIfDue(long now) {
+        long elapsed = now - decayedAt;
+        if (halfLifeNanos <= 0 || elapsed < halfLifeNanos) {
+            return;
+        }
+        double factor = Math.pow(0.5, (double) elapsed / halfLifeNanos);
+        counters.values().removeIf(counter -> {
+            counter.count *= factor;
+            counter.error *= factor;
+            return counter.count < 0.5;
+        });
+        decayedAt = now;
+    }
+
+    public record Hit(String query, double count) {
+    }
+
+    private static final class Counter {
+        private double count;
+        private double error;
+
+        private Counter(double count, double error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.poundsaver.scraper.repository;
+
+import com.poundsaver.scraper.entity.ScrapeJob;
+import com.poundsaver.shared.enums.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScrapeJobRepository extends JpaRepository<ScrapeJob, String> {
+
+    /**
+     * Latest completion time per retailer and lower-cased query, as
+     * {@code [Retailer, String, LocalDateTime]} rows.
+     */
+    @Query("SELECT j.retailer, LOWER(j.searchQuery), MAX(j.completedAt) FROM ScrapeJob j "
+            + "WHERE j.status = :status AND LOWER(j.searchQuery) IN :queries "
+            + "GROUP BY j.retailer, LOWER(j.searchQuery)")
+    List<Object[]> findLastCompleted(@Param("queries") Collection<String> queries, @Param("status") JobStatus status);
+}
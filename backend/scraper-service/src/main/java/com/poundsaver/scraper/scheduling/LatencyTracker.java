@@ -0,0 +1,165 @@
+package com.poundsaver.scraper.scheduling;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling latency histograms per retailer, used to size navigation timeouts from the observed
+ * p99 and to decide when a slow job is worth hedging. Each window is a ring of HdrHistogram
+ * slices covering {@code scraper.latency.window}. Until a window holds {@code minSamples}
+ * values the configured static timeout applies and no hedge is attempted.
+ */
+@Component
+public class LatencyTracker {
+
+    public enum Phase {
+        NAVIGATION,
+        FIRST_PRODUCT
+    }
+
+    private final ScraperProperties.Latency settings;
+    private final Duration staticNavigationTimeout;
+    private final Map<Retailer, Map<Phase, Window>> windows = new EnumMap<>(Retailer.class);
+
+    public LatencyTracker(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getLatency();
+        this.staticNavigationTimeout = properties.getTimeouts().getNavigation();
+        long sliceNanos = settings.getWindow().toNanos() / Math.max(1, settings.getSlices());
+        for (Retailer retailer : Retailer.values()) {
+            Map<Phase, Window> phases = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, new Window(Math.max(1, settings.getSlices()), sliceNanos));
+            }
+            windows.put(retailer, phases);
+
+            Gauge.builder("scraper_navigation_timeout_seconds", this, tracker -> tracker.navigationTimeout(retailer).toMillis() / 1000.0)
+                    .description("Navigation timeout currently applied to the retailer")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+            Gauge.builder("scraper_hedge_delay_seconds", this, tracker -> tracker.hedgeDelay(retailer)
+                            .map(delay -> delay.toMillis() / 1000.0)
+                            .orElse(Double.NaN))
+                    .description("Time after which a job still without products is hedged; NaN while hedging is off")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void record(Retailer retailer, Phase phase, long nanos) {
+        windows.get(retailer).get(phase).record(TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos)));
+    }
+
+    /**
+     * The observed navigation p99 scaled by {@code timeoutMultiplier} and clamped to the
+     * configured bounds, or the static navigation timeout while there is too little data.
+     */
+    public Duration navigationTimeout(Retailer retailer) {
+        if (!settings.isAdaptiveTimeouts()) {
+            return staticNavigationTimeout;
+        }
+        long p99 = windows.get(retailer).get(Phase.NAVIGATION).percentileMicros(99.0, settings.getMinSamples());
+        if (p99 < 0) {
+            return staticNavigationTimeout;
+        }
+        Duration observed = Duration.ofNanos((long) (TimeUnit.MICROSECONDS.toNanos(p99) * settings.getTimeoutMultiplier()));
+        return clamp(observed, settings.getMinNavigationTimeout(), settings.getMaxNavigationTimeout());
+    }
+
+    /**
+     * How long a job may go without its first product before a second attempt is started,
+     * based on the observed time-to-first-product quantile. Empty while hedging is disabled or
+     * there is too little data.
+     */
+    public Optional<Duration> hedgeDelay(Retailer retailer) {
+        if (!settings.isHedging()) {
+            return Optional.empty();
+        }
+        long micros = windows.get(retailer).get(Phase.FIRST_PRODUCT)
+                .percentileMicros(settings.getHedgePercentile(), settings.getMinSamples());
+        if (micros < 0) {
+            return Optional.empty();
+        }
+        Duration delay = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        return Optional.of(delay.compareTo(settings.getMinHedgeDelay()) < 0 ? settings.getMinHedgeDelay() : delay);
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        if (value.compareTo(min) < 0) {
+            return min;
+        }
+        return value.compareTo(max) > 0 ? max : value;
+    }
+
+    /**
+     * A ring of HdrHistogram slices over microsecond values, to two significant digits. Writers
+     * record into a {@link Recorder} without locking; its interval histogram is swapped out and
+     * folded into the current slice whenever the window is read or a slice is due to rotate.
+     */
+    private static final class Window {
+        private static final int SIGNIFICANT_DIGITS = 2;
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram[] slices;
+        private final long sliceNanos;
+        private Histogram interval;
+        private int head;
+        private volatile long rotatedAt = System.nanoTime();
+
+        private Window(int slices, long sliceNanos) {
+            this.slices = new Histogram[slices];
+            for (int i = 0; i < slices; i++) {
+                this.slices[i] = new Histogram(SIGNIFICANT_DIGITS);
+            }
+            this.sliceNanos = sliceNanos;
+        }
+
+        private void record(long micros) {
+            recorder.recordValue(micros);
+            if (System.nanoTime() - rotatedAt >= sliceNanos) {
+                drain();
+            }
+        }
+
+        /**
+         * The percentile over the window in microseconds, or -1 if it holds fewer than
+         * {@code minSamples} values.
+         */
+        private synchronized long percentileMicros(double percentile, int minSamples) {
+            drain();
+            Histogram merged = new Histogram(SIGNIFICANT_DIGITS);
+            for (Histogram slice : slices) {
+                merged.add(slice);
+            }
+            if (merged.getTotalCount() < Math.max(1, minSamples)) {
+                return -1;
+            }
+            return merged.getValueAtPercentile(percentile);
+        }
+
+        /**
+         * Folds values recorded since the last swap into the current slice, then advances past
+         * and clears any slices whose time has passed.
+         */
+        private synchronized void drain() {
+            interval = recorder.getIntervalHistogram(interval);
+            slices[head].add(interval);
+            long elapsedSlices = (System.nanoTime() - rotatedAt) / sliceNanos;
+            for (long i = 0; i < Math.min(slices.length, elapsedSlices); i++) {
+                head = (head + 1) % slices.length;
+                slices[head].reset();
+            }
+            rotatedAt += elapsedSlices * sliceNanos;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.poundsaver.scraper.scheduling;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket per retailer limiting how often we navigate to its site. Each bucket's refill
+ * rate adapts: a block (HTTP 403/429 or a captcha) multiplies it down and drains the burst,
+ * and every clean page load adds a small step back until the configured ceiling is reached.
+ * Jobs wait for their turn before taking a browser, and are rejected outright when the wait
+ * would exceed the retailer's {@code maxWait}.
+ */
+@Component
+public class PolitenessLimiter {
+
+    private final ScraperProperties.Politeness settings;
+    private final Map<Retailer, Bucket> buckets = new EnumMap<>(Retailer.class);
+
+    public PolitenessLimiter(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getPoliteness();
+        for (Retailer retailer : Retailer.values()) {
+            buckets.put(retailer, new Bucket(retailer, settings.budgetFor(retailer), meterRegistry));
+        }
+    }
+
+    /**
+     * How long a navigation to {@code retailer} would have to wait if it were requested now.
+     */
+    public Duration estimateWait(Retailer retailer) {
+        if (!settings.isEnabled()) {
+            return Duration.ZERO;
+        }
+        Bucket bucket = buckets.get(retailer);
+        synchronized (bucket) {
+            return Duration.ofNanos(bucket.waitNanos(System.nanoTime()));
+        }
+    }
+
+    /**
+     * Blocks until {@code retailer} has budget for another navigation, without consuming it.
+     * Returns the time waited, or throws {@link ScrapingRejectedException} if the estimate
+     * exceeds the retailer's {@code maxWait}.
+     */
+    public Duration awaitTurn(Retailer retailer) {
+        Duration wait = estimateWait(retailer);
+        Duration maxWait = settings.budgetFor(retailer).getMaxWait();
+        if (wait.compareTo(maxWait) > 0) {
+            buckets.get(retailer).rejected.increment();
+            throw new ScrapingRejectedException("Politeness budget for " + retailer + " is exhausted, next slot in "
+                    + wait.toSeconds() + "s", wait);
+        }
+        sleep(retailer, wait.toNanos());
+        return wait;
+    }
+
+    /**
+     * Takes one navigation from {@code retailer}'s budget, sleeping until it is due. Returns
+     * the time waited.
+     */
+    public Duration acquire(Retailer retailer) {
+        if (!settings.isEnabled()) {
+            return Duration.ZERO;
+        }
+        Bucket bucket = buckets.get(retailer);
+        long wait;
+        synchronized (bucket) {
+            long now = System.nanoTime();
+            bucket.refill(now);
+            bucket.tokens -= 1;
+            wait = bucket.tokens >= 0 ? 0 : (long) (-bucket.tokens / bucket.ratePerNano());
+        }
+        sleep(retailer, wait);
+        return Duration.ofNanos(wait);
+    }
+
+    public void recordSuccess(Retailer retailer) {
+        Bucket bucket = buckets.get(retailer);
+        synchronized (bucket) {
+            bucket.refill(System.nanoTime());
+            bucket.factor = Math.min(1.0, bucket.factor + bucket.budget.getRecoveryStep());
+        }
+    }
+
+    /**
+     * Backs {@code retailer} off after it refused a request; {@code reason} is a metric tag
+     * such as {@code http_429} or {@code captcha}.
+     */
+    public void recordBlocked(Retailer retailer, String reason) {
+        Bucket bucket = buckets.get(retailer);
+        synchronized (bucket) {
+            bucket.refill(System.nanoTime());
+            bucket.factor = Math.max(bucket.budget.getMinFactor(), bucket.factor * bucket.budget.getBackoffMultiplier());
+            bucket.tokens = Math.min(bucket.tokens, 0);
+        }
+        bucket.blocked(reason).increment();
+    }
+
+    public Map<Retailer, State> state() {
+        Map<Retailer, State> state = new EnumMap<>(Retailer.class);
+        long now = System.nanoTime();
+        buckets.forEach((retailer, bucket) -> {
+            synchronized (bucket) {
+                bucket.refill(now);
+                state.put(retailer, new State(bucket.ratePerNano() * 60e9, bucket.factor, bucket.tokens,
+                        TimeUnit.NANOSECONDS.toMillis(settings.isEnabled() ? bucket.waitNanos(now) : 0)));
+            }
+        });
+        return state;
+    }
+
+    private void sleep(Retailer retailer, long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        buckets.get(retailer).waitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScrapingRejectedException("Interrupted while waiting for " + retailer + " politeness budget");
+        }
+    }
+
+    /**
+     * {@code requestsPerMinute} is the current adapted rate and {@code factor} its fraction of
+     * the configured ceiling.
+     */
+    public record State(double requestsPerMinute, double factor, double tokens, long estimatedWaitMs) {
+    }
+
+    private static final class Bucket {
+        private final Retailer retailer;
+        private final ScraperProperties.Budget budget;
+        private final MeterRegistry meterRegistry;
+        private final Timer waitTimer;
+        private final Counter rejected;
+        private double tokens;
+        private double factor = 1.0;
+        private long refilledAt = System.nanoTime();
+
+        private Bucket(Retailer retailer, ScraperProperties.Budget budget, MeterRegistry meterRegistry) {
+            this.retailer = retailer;
+            this.budget = budget;
+            this.meterRegistry = meterRegistry;
+            this.tokens = budget.getBurst();
+            String tag = retailer.name();
+            this.waitTimer = Timer.builder("scraper_politeness_wait_seconds")
+                    .description("Time spent waiting for a retailer's politeness budget")
+                    .tag("retailer", tag)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("scraper_politeness_rejected_total")
+                    .description("Scrape jobs rejected because the retailer's politeness wait was too long")
+                    .tag("retailer", tag)
+                    .register(meterRegistry);
+            Gauge.builder("scraper_politeness_rate_per_minute", this, bucket -> {
+                        synchronized (bucket) {
+                            return bucket.ratePerNano() * 60e9;
+                        }
+                    })
+                    .description("Current adapted navigation rate ceiling for the retailer")
+                    .tag("retailer", tag)
+                    .register(meterRegistry);
+            Gauge.builder("scraper_politeness_tokens", this, bucket -> {
+                        synchronized (bucket) {
+                            bucket.refill(System.nanoTime());
+                            return bucket.tokens;
+                        }
+                    })
+                    .description("Navigations the retailer's bucket can serve immediately; negative when reserved ahead")
+                    .tag("retailer", tag)
+                    .register(meterRegistry);
+        }
+
+        private double ratePerNano() {
+            return budget.getRequestsPerMinute() * factor / 60e9;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(budget.getBurst(), tokens + (now - refilledAt) * ratePerNano());
+            refilledAt = now;
+        }
+
+        private long waitNanos(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) ((1 - tokens) / ratePerNano());
+        }
+
+        private Counter blocked(String reason) {
+            return Counter.builder("scraper_politeness_blocks_total")
+                    .description("Responses that looked like bot defences, by reason")
+                    .tags("retailer", retailer.name(), "reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.poundsaver.scraper.scheduling;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking scrape work on a dedicated, bounded thread pool. Each retailer gets its own
+ * lane with a concurrency limit and a bounded wait queue; work that does not fit in either
+ * the lane or the shared pool is rejected with {@link ScrapingRejectedException}.
+ */
+@Component
+public class ScrapeScheduler {
+
+    private final ThreadPoolExecutor executor;
+    private final Map<Retailer, Lane> lanes = new EnumMap<>(Retailer.class);
+
+    public ScrapeScheduler(ScraperProperties properties, MeterRegistry meterRegistry) {
+        ScraperProperties.Executor settings = properties.getExecutor();
+        this.executor = new ThreadPoolExecutor(
+                settings.getMaxConcurrentJobs(),
+                settings.getMaxConcurrentJobs(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                new CustomizableThreadFactory("scrape-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("scraper_executor_queue_depth", executor, e -> e.getQueue().size())
+                .description("Scrape jobs admitted by a retailer lane and waiting for a worker thread")
+                .register(meterRegistry);
+        Gauge.builder("scraper_executor_active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Scrape jobs currently running")
+                .register(meterRegistry);
+
+        for (Retailer retailer : Retailer.values()) {
+            lanes.put(retailer, new Lane(retailer, settings.laneFor(retailer), meterRegistry));
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Retailer retailer, Supplier<T> task) {
+        Lane lane = lanes.get(retailer);
+        Pending<T> pending = new Pending<>(task);
+
+        synchronized (lane) {
+            if (lane.running < lane.limits.getMaxConcurrent()) {
+                lane.running++;
+            } else if (lane.waiting.size() < lane.limits.getQueueCapacity()) {
+                lane.waiting.add(pending);
+                return pending.future;
+            } else {
+                lane.rejected.increment();
+                return CompletableFuture.failedFuture(new ScrapingRejectedException(
+                        "Scrape queue for " + retailer + " is full"));
+            }
+        }
+
+        dispatch(lane, pending);
+        return pending.future;
+    }
+
+    /**
+     * Starts {@code task} only if {@code retailer}'s lane and the pool can run it straight away,
+     * returning {@code null} otherwise. Speculative work goes through here so it never queues
+     * ahead of real jobs.
+     */
+    public <T> CompletableFuture<T> trySubmit(Retailer retailer, Supplier<T> task) {
+        Lane lane = lanes.get(retailer);
+        synchronized (lane) {
+            if (lane.running >= lane.limits.getMaxConcurrent() || !lane.waiting.isEmpty() || idleWorkers() == 0) {
+                return null;
+            }
+            lane.running++;
+        }
+
+        Pending<T> pending = new Pending<>(task);
+        try {
+            executor.execute(() -> run(lane, pending));
+        } catch (RejectedExecutionException e) {
+            finish(lane);
+            return null;
+        }
+        return pending.future;
+    }
+
+    /**
+     * Jobs {@code retailer} could start right now without waiting in any queue.
+     */
+    public int idleSlots(Retailer retailer) {
+        Lane lane = lanes.get(retailer);
+        int laneFree;
+        synchronized (lane) {
+            laneFree = lane.waiting.isEmpty() ? lane.limits.getMaxConcurrent() - lane.running : 0;
+        }
+        return Math.max(0, Math.min(laneFree, idleWorkers()));
+    }
+
+    public int idleWorkers() {
+        return Math.max(0, executor.getMaximumPoolSize() - executor.getActiveCount() - executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Lane lane, Pending<?> pending) {
+        try {
+            executor.execute(() -> run(lane, pending));
+        } catch (RejectedExecutionException e) {
+            lane.rejected.increment();
+            pending.future.completeExceptionally(new ScrapingRejectedException(
+                    "Scrape executor is saturated, rejected job for " + lane.retailer));
+            finish(lane);
+        }
+    }
+
+    private <T> void run(Lane lane, Pending<T> pending) {
+        lane.waitTimer.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            pending.future.complete(pending.task.get());
+        } catch (Throwable t) {
+            pending.future.completeExceptionally(t);
+        } finally {
+            finish(lane);
+        }
+    }
+
+    private void finish(Lane lane) {
+        Pending<?> next;
+        synchronized (lane) {
+            next = lane.waiting.poll();
+            if (next == null) {
+                lane.running--;
+                return;
+            }
+        }
+        dispatch(lane, next);
+    }
+
+    private static final class Pending<T> {
+        private final Supplier<T> task;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Pending(Supplier<T> task) {
+            this.task = task;
+        }
+    }
+
+    private static final class Lane {
+        private final Retailer retailer;
+        private final ScraperProperties.Lane limits;
+        private final Queue<Pending<?>> waiting = new ArrayDeque<>();
+        private final Timer waitTimer;
+        private final Counter rejected;
+        private int running;
+
+        private Lane(Retailer retailer, ScraperProperties.Lane limits, MeterRegistry meterRegistry) {
+            this.retailer = retailer;
+            this.limits = limits;
+            this.waitTimer = Timer.builder("scraper_queue_wait_seconds")
+                    .description("Time a scrape job waited before a worker picked it up")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("scraper_jobs_rejected_total")
+                    .description("Scrape jobs rejected because a queue was full")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+            Gauge.builder("scraper_queue_depth", this, lane -> {
+                        synchronized (lane) {
+                            return lane.waiting.size();
+                        }
+                    })
+                    .description("Scrape jobs waiting for a free slot in the retailer lane")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.poundsaver.scraper.service;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.entity.ScrapeJob;
+import com.poundsaver.scraper.repository.ScrapeJobRepository;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Source of truth for scrape job state. Live jobs are held in memory and every state change is
+ * pushed to server-sent-event subscribers straight away; the database is written behind in
+ * batches on a fixed delay, and finished jobs are dropped from memory once they are persisted.
+ * Whether a row is inserted or merged is decided when its batch is built: only a job this
+ * instance registered, whose insert has not been issued yet, is written as new.
+ */
+@Slf4j
+@Component
+public class JobRegistry {
+
+    private final ScrapeJobRepository repository;
+    private final ScraperProperties.Jobs settings;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    private final Map<String, ScrapeJob> live = new HashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final Set<String> unwritten = new HashSet<>();
+    private final Object flushLock = new Object();
+    private final Map<String, List<Subscription>> subscribers = new HashMap<>();
+
+    public JobRegistry(ScrapeJobRepository repository, ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.settings = properties.getJobs();
+        this.flushTimer = Timer.builder("scraper_job_flush_seconds")
+                .description("Time to write a batch of job state changes to the database")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("scraper_job_flush_failures_total")
+                .description("Job state batches that failed to persist and were retried")
+                .register(meterRegistry);
+        Gauge.builder("scraper_jobs_live", this, registry -> {
+                    synchronized (registry) {
+                        return registry.live.size();
+                    }
+                })
+                .description("Scrape jobs held in memory, unfinished or awaiting persistence")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the current state of {@code job}. The DTO is copied, so callers may keep
+     * mutating it after this returns.
+     */
+    public void update(ScrapingJobDTO job) {
+        ScrapeJob snapshot;
+        List<Subscription> listeners;
+        synchronized (this) {
+            ScrapeJob previous = live.get(job.getJobId());
+            LocalDateTime createdAt = previous != null ? previous.getCreatedAt() : LocalDateTime.now();
+            snapshot = ScrapeJob.from(job, createdAt);
+            // Jobs are registered as PENDING; anything else unseen here was evicted after its row was written
+            if (previous == null && job.getStatus() == JobStatus.PENDING) {
+                unwritten.add(job.getJobId());
+            }
+            live.put(job.getJobId(), snapshot);
+            dirty.add(job.getJobId());
+            listeners = new ArrayList<>(subscribers.getOrDefault(job.getJobId(), List.of()));
+        }
+
+        ScrapingJobDTO event = snapshot.toDto();
+        for (Subscription subscription : listeners) {
+            subscription.publish(event, snapshot.isTerminal());
+        }
+    }
+
+    public Optional<ScrapingJobDTO> find(String jobId) {
+        synchronized (this) {
+            ScrapeJob job = live.get(jobId);
+            if (job != null) {
+                return Optional.of(job.toDto());
+            }
+        }
+        return repository.findById(jobId).map(ScrapeJob::toDto);
+    }
+
+    /**
+     * Opens an event stream for {@code jobIds}. Each job's current state is sent first, then
+     * every change; the stream completes once all of the jobs have finished.
+     */
+    public SseEmitter subscribe(Collection<String> jobIds) {
+        SseEmitter emitter = new SseEmitter(settings.getStreamTimeout().toMillis());
+        Subscription subscription = new Subscription(emitter, new LinkedHashSet<>(jobIds));
+
+        synchronized (this) {
+            for (String jobId : jobIds) {
+                subscribers.computeIfAbsent(jobId, id -> new ArrayList<>()).add(subscription);
+            }
+        }
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscription));
+
+        for (String jobId : jobIds) {
+            Optional<ScrapingJobDTO> current = find(jobId);
+            if (current.isPresent()) {
+                subscription.publish(current.get(), ScrapeJob.isTerminal(current.get().getStatus()));
+            } else {
+                subscription.missing(jobId);
+            }
+        }
+        return subscription.emitter;
+    }
+
+    /**
+     * Writes every job changed since the last flush. Flushes run one at a time, so an insert
+     * claimed by a batch is either committed or handed back before the next batch is built.
+     */
+    @Scheduled(fixedDelayString = "${scraper.jobs.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<ScrapeJob> batch;
+            List<String> inserts = new ArrayList<>();
+            synchronized (this) {
+                if (dirty.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(dirty.size());
+                for (String jobId : dirty) {
+                    ScrapeJob job = live.get(jobId);
+                    job.setNew(unwritten.remove(jobId));
+                    if (job.isNew()) {
+                        inserts.add(jobId);
+                    }
+                    batch.add(job);
+                }
+                dirty.clear();
+            }
+
+            try {
+                flushTimer.record(() -> repository.saveAll(batch));
+            } catch (Exception e) {
+                flushFailures.increment();
+                log.warn("Failed to persist {} job updates, will retry: {}", batch.size(), e.getMessage());
+                synchronized (this) {
+                    // The batch rolled back as a whole, so none of its inserts happened
+                    unwritten.addAll(inserts);
+                    batch.forEach(job -> dirty.add(job.getId()));
+                }
+                return;
+            }
+
+            synchronized (this) {
+                for (ScrapeJob job : batch) {
+                    // Evict only if nothing newer arrived while the batch was being written
+                    if (job.isTerminal() && live.get(job.getId()) == job && !dirty.contains(job.getId())) {
+                        live.remove(job.getId());
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        for (String jobId : subscription.pending) {
+            List<Subscription> listeners = subscribers.get(jobId);
+            if (listeners != null) {
+                listeners.remove(subscription);
+                if (listeners.isEmpty()) {
+                    subscribers.remove(jobId);
+                }
+            }
+        }
+    }
+
+    /**
+     * One client stream. Sends are serialized per emitter, since job updates arrive from
+     * scheduler workers and Kafka callbacks concurrently.
+     */
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<String> pending;
+        private final Set<String> finished = new HashSet<>();
+        private boolean closed;
+
+        private Subscription(SseEmitter emitter, Set<String> pending) {
+            this.emitter = emitter;
+            this.pending = pending;
+        }
+
+        synchronized void publish(ScrapingJobDTO job, boolean terminal) {
+            if (closed || finished.contains(job.getJobId())) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("job").id(job.getJobId()).data(job));
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                emitter.completeWithError(e);
+                return;
+            }
+            if (terminal) {
+                markFinished(job.getJobId());
+            }
+        }
+
+        synchronized void missing(String jobId) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("missing").data(Map.of("jobId", jobId)));
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                emitter.completeWithError(e);
+                return;
+            }
+            markFinished(jobId);
+        }
+
+        private void markFinished(String jobId) {
+            finished.add(jobId);
+            if (finished.size() == pending.size()) {
+                closed = true;
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -1,42 +1,117 @@
 package com.poundsaver.scraper.service;
 
-import com.microsoft.playwright.*;
+import com.microsoft.playwright.Page;
+import com.poundsaver.scraper.browser.BrowserLease;
+import com.poundsaver.scraper.browser.BrowserPool;
+import com.poundsaver.scraper.browser.ResourceBlocker;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.entity.ScrapeJob;
+import com.poundsaver.scraper.fetch.HttpFetcher;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.scraper.fixture.FixtureArchive;
+import com.poundsaver.scraper.kafka.ProductEmitter;
+import com.poundsaver.scraper.kafka.ScrapeCommand;
+import com.poundsaver.scraper.kafka.ScrapeCommandPublisher;
+import com.poundsaver.scraper.scheduling.LatencyTracker;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.scheduling.ScrapeScheduler;
+import com.poundsaver.scraper.strategy.ProductSink;
 import com.poundsaver.scraper.strategy.ScraperStrategy;
 import com.poundsaver.scraper.strategy.ScraperStrategyFactory;
+import com.poundsaver.scraper.strategy.TileScraper;
 import com.poundsaver.shared.dto.ProductDTO;
 import com.poundsaver.shared.dto.ScrapingJobDTO;
 import com.poundsaver.shared.enums.JobStatus;
 import com.poundsaver.shared.enums.Retailer;
 import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.shared.exception.ScrapingRejectedException;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 public class PlaywrightScraperService {
 
-    private final KafkaTemplate<String, ProductDTO> kafkaTemplate;
     private final ScraperStrategyFactory strategyFactory;
+    private final BrowserPool browserPool;
+    private final ResourceBlocker resourceBlocker;
+    private final FixtureArchive fixtureArchive;
+    private final HttpFetcher httpFetcher;
+    private final ScrapeScheduler scrapeScheduler;
+    private final PolitenessLimiter politeness;
+    private final LatencyTracker latencyTracker;
+    private final ProductEmitter productEmitter;
+    private final JobRegistry jobRegistry;
+    private final ScrapeCoalescer scrapeCoalescer;
+    private final ScrapeFingerprints fingerprints;
+    private final ScrapeCommandPublisher commandPublisher;
+    private final ScraperProperties.Sharding sharding;
+    private final ScraperProperties.Batch batch;
     private final MeterRegistry meterRegistry;
     private final Counter scraperRequestsCounter;
     private final Timer scraperTimer;
 
+    // Jobs this instance dispatched to the command topic, completed by updates from the executing replica
+    private final Map<String, CompletableFuture<ScrapingJobDTO>> dispatched = new ConcurrentHashMap<>();
+    // Jobs this instance is running for another replica, mapped to that replica's instance ID
+    private final Map<String, String> remoteOrigins = new ConcurrentHashMap<>();
+
     public PlaywrightScraperService(
-            KafkaTemplate<String, ProductDTO> kafkaTemplate,
             ScraperStrategyFactory strategyFactory,
+            BrowserPool browserPool,
+            ResourceBlocker resourceBlocker,
+            FixtureArchive fixtureArchive,
+            HttpFetcher httpFetcher,
+            ScrapeScheduler scrapeScheduler,
+            PolitenessLimiter politeness,
+            LatencyTracker latencyTracker,
+            ProductEmitter productEmitter,
+            JobRegistry jobRegistry,
+            ScrapeCoalescer scrapeCoalescer,
+            ScrapeFingerprints fingerprints,
+            ScrapeCommandPublisher commandPublisher,
+            ScraperProperties properties,
             MeterRegistry meterRegistry) {
-        this.kafkaTemplate = kafkaTemplate;
         this.strategyFactory = strategyFactory;
+        this.browserPool = browserPool;
+        this.resourceBlocker = resourceBlocker;
+        this.fixtureArchive = fixtureArchive;
+        this.httpFetcher = httpFetcher;
+        this.scrapeScheduler = scrapeScheduler;
+        this.politeness = politeness;
+        this.latencyTracker = latencyTracker;
+        this.productEmitter = productEmitter;
+        this.jobRegistry = jobRegistry;
+        this.scrapeCoalescer = scrapeCoalescer;
+        this.fingerprints = fingerprints;
+        this.commandPublisher = commandPublisher;
+        this.sharding = properties.getSharding();
+        this.batch = properties.getBatch();
         this.meterRegistry = meterRegistry;
         this.scraperRequestsCounter = Counter.builder("scraper_requests_total")
                 .description("Total scraping requests")
@@ -47,113 +122,555 @@ public class PlaywrightScraperService {
     }
 
     public CompletableFuture<ScrapingJobDTO> scrapeRetailer(Retailer retailer, String searchQuery) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (retailer == null) {
-                throw new IllegalArgumentException("Retailer cannot be null");
-            }
-            
-            if (searchQuery == null || searchQuery.trim().isEmpty()) {
-                throw new IllegalArgumentException("Search query cannot be null or empty");
-            }
-            
-            String jobId = UUID.randomUUID().toString();
-            ScrapingJobDTO job = ScrapingJobDTO.builder()
-                    .jobId(jobId)
-                    .retailer(retailer)
-                    .searchQuery(searchQuery.trim())
-                    .status(JobStatus.IN_PROGRESS)
-                    .startedAt(LocalDateTime.now())
-                    .build();
-
-            scraperRequestsCounter.increment();
-
-            return scraperTimer.record(() -> {
-                Playwright playwright = null;
-                Browser browser = null;
-                BrowserContext context = null;
-                
-                try {
-                    playwright = Playwright.create();
-                    browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
-                            .setHeadless(true)
-                            .setArgs(List.of("--disable-blink-features=AutomationControlled")));
-
-                    context = browser.newContext(new Browser.NewContextOptions()
-                            .setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"));
-
-                    Page page = context.newPage();
-
-                    ScraperStrategy strategy = strategyFactory.getStrategy(retailer);
-                    if (strategy == null) {
-                        throw new ScrapingException("No scraper strategy found for retailer: " + retailer);
-                    }
-                    
-                    List<ProductDTO> products = strategy.scrape(page, searchQuery.trim());
-
-                    if (products != null && !products.isEmpty()) {
-                        products.forEach(product -> {
-                            try {
-                                if (product != null) {
-                                    kafkaTemplate.send("product-scraped", product);
-                                }
-                            } catch (Exception e) {
-                                log.error("Failed to send product to Kafka: {}", e.getMessage());
-                            }
-                        });
-                    }
+        if (retailer == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Retailer cannot be null"));
+        }
+        
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Search query cannot be null or empty"));
+        }
 
-                    job.setStatus(JobStatus.COMPLETED);
-                    job.setProductsScraped(products != null ? products.size() : 0);
-                    job.setCompletedAt(LocalDateTime.now());
-                    job.setDurationMs(
-                            java.time.Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis()
-                    );
+        return start(retailer, searchQuery.trim()).result();
+    }
 
-                    log.info("Scraping job {} completed. Scraped {} products from {}",
-                            jobId, products != null ? products.size() : 0, retailer);
+    /**
+     * Registers one job per retailer and starts them without waiting for results. Jobs that
+     * could not be queued are returned already {@code CANCELLED}.
+     */
+    public List<ScrapingJobDTO> submitJobs(Collection<Retailer> retailers, String searchQuery) {
+        List<ScrapingJobDTO> submitted = new ArrayList<>(retailers.size());
+        for (Retailer retailer : retailers) {
+            ScrapeCoalescer.Flight flight = start(retailer, searchQuery.trim());
+            ScrapingJobDTO job = flight.job();
+            flight.result().exceptionally(ex -> rejectedOrNull(job, ex));
+            submitted.add(jobRegistry.find(job.getJobId()).orElse(job));
+        }
+        return submitted;
+    }
 
-                    return job;
+    /**
+     * Starts a job, or attaches to an identical one that is running or has just completed.
+     */
+    private ScrapeCoalescer.Flight start(Retailer retailer, String searchQuery) {
+        return scrapeCoalescer.join(retailer, searchQuery, () -> {
+            ScrapingJobDTO job = register(retailer, searchQuery);
+            if (sharding.isEnabled()) {
+                return new ScrapeCoalescer.Flight(job, dispatch(job), List.of());
+            }
+            List<ProductDTO> listed = Collections.synchronizedList(new ArrayList<>());
+            return new ScrapeCoalescer.Flight(job, run(job, listed::add), listed);
+        });
+    }
 
-                } catch (Exception e) {
-                    log.error("Scraping job {} failed for retailer {}: {}",
-                            jobId, retailer, e.getMessage(), e);
-                    
-                    job.setStatus(JobStatus.FAILED);
-                    job.setErrorMessage(e.getMessage() != null ? e.getMessage() : "Unknown error");
-                    job.setCompletedAt(LocalDateTime.now());
-                    job.setDurationMs(
-                            java.time.Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis()
-                    );
-                    
-                    return job;
-                    
-                } finally {
-                    try {
-                        if (context != null) {
-                            context.close();
-                        }
-                    } catch (Exception e) {
-                        log.warn("Error closing browser context: {}", e.getMessage());
-                    }
-                    
-                    try {
-                        if (browser != null) {
-                            browser.close();
-                        }
-                    } catch (Exception e) {
-                        log.warn("Error closing browser: {}", e.getMessage());
-                    }
-                    
-                    try {
-                        if (playwright != null) {
-                            playwright.close();
-                        }
-                    } catch (Exception e) {
-                        log.warn("Error closing playwright: {}", e.getMessage());
-                    }
+    /**
+     * Scrapes many queries against one retailer through a few long-lived browser contexts, so
+     * later queries reuse the warm cache, cookies and connections of earlier ones. Each query
+     * is still its own job; queries already running or recently scraped attach to that job.
+     * Returns every query's job once all have finished, each with its own timings.
+     */
+    public CompletableFuture<List<ScrapingJobDTO>> scrapeRetailerBatch(Retailer retailer, List<String> queries) {
+        if (retailer == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Retailer cannot be null"));
+        }
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String query : queries != null ? queries : List.<String>of()) {
+            if (query != null && !query.trim().isEmpty()) {
+                distinct.putIfAbsent(ScrapeCoalescer.normalise(query), query.trim());
+            }
+        }
+        if (distinct.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("At least one search query is required"));
+        }
+        if (distinct.size() > batch.getMaxQueries()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "A batch may hold at most " + batch.getMaxQueries() + " queries"));
+        }
+
+        // Recording or replaying fixtures needs a context per query, and sharded jobs run elsewhere
+        boolean shared = !sharding.isEnabled() && !fixtureArchive.isActive();
+        Queue<BatchItem> queue = new ConcurrentLinkedQueue<>();
+        List<ScrapeCoalescer.Flight> flights = new ArrayList<>(distinct.size());
+        for (String query : distinct.values()) {
+            flights.add(shared
+                    ? scrapeCoalescer.join(retailer, query, () -> {
+                        BatchItem item = new BatchItem(register(retailer, query), new CompletableFuture<>(),
+                                Collections.synchronizedList(new ArrayList<>()));
+                        queue.add(item);
+                        return new ScrapeCoalescer.Flight(item.job(), item.result(), item.listed());
+                    })
+                    : start(retailer, query));
+        }
+
+        int sessions = Math.min(Math.max(1, batch.getParallelism()), queue.size());
+        AtomicInteger open = new AtomicInteger(sessions);
+        for (int i = 0; i < sessions; i++) {
+            scrapeScheduler.submit(retailer, () -> {
+                runBatchSession(retailer, queue, open);
+                return null;
+            }).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    // Never started; the last session out cancels whatever is still queued
+                    closeBatchSession(queue, open, rootCause(ex));
                 }
             });
+        }
+
+        List<CompletableFuture<ScrapingJobDTO>> results = flights.stream()
+                .map(flight -> flight.result().exceptionally(ex -> rejectedOrNull(flight.job(), ex)))
+                .toList();
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(v -> results.stream()
+                        .map(CompletableFuture::join)
+                        .filter(job -> job != null)
+                        .toList());
+    }
+
+    /**
+     * Works through batch queries on one browser context and page until the queue is empty.
+     */
+    private void runBatchSession(Retailer retailer, Queue<BatchItem> queue, AtomicInteger open) {
+        if (queue.isEmpty()) {
+            // Other sessions got through the queue before this one was scheduled
+            closeBatchSession(queue, open, null);
+            return;
+        }
+        Throwable failure = null;
+        try (BrowserLease lease = browserPool.lease(retailer)) {
+            ResourceBlocker.TrafficStats traffic = resourceBlocker.install(lease.context(), retailer);
+            Page page = lease.context().newPage();
+            boolean warm = false;
+            BatchItem item;
+            while ((item = queue.poll()) != null) {
+                if (page.isClosed()) {
+                    page = lease.context().newPage();
+                }
+                runBatchQuery(item, page, warm);
+                warm = true;
+            }
+            resourceBlocker.record(traffic);
+        } catch (RuntimeException e) {
+            log.error("Batch session for {} ended early: {}", retailer, e.getMessage());
+            failure = e;
+        } finally {
+            closeBatchSession(queue, open, failure);
+        }
+    }
+
+    private void closeBatchSession(Queue<BatchItem> queue, AtomicInteger open, Throwable failure) {
+        if (open.decrementAndGet() > 0) {
+            return;
+        }
+        BatchItem item;
+        while ((item = queue.poll()) != null) {
+            ScrapingJobDTO job = item.job();
+            if (failure instanceof ScrapingRejectedException) {
+                job.setStatus(JobStatus.CANCELLED);
+                job.setErrorMessage(failure.getMessage());
+                job.setCompletedAt(LocalDateTime.now());
+                report(job);
+                item.result().completeExceptionally(failure);
+            } else {
+                fail(job, "Batch session failed: " + (failure != null ? failure.getMessage() : "no browser session"));
+                report(job);
+                item.result().complete(job);
+            }
+        }
+    }
+
+    private void runBatchQuery(BatchItem item, Page page, boolean warm) {
+        ScrapingJobDTO job = item.job();
+        Retailer retailer = job.getRetailer();
+        try {
+            politeness.awaitTurn(retailer);
+        } catch (ScrapingRejectedException e) {
+            job.setStatus(JobStatus.CANCELLED);
+            job.setErrorMessage(e.getMessage());
+            job.setCompletedAt(LocalDateTime.now());
+            report(job);
+            item.result().completeExceptionally(e);
+            return;
+        }
+        job.setStatus(JobStatus.IN_PROGRESS);
+        job.setStartedAt(LocalDateTime.now());
+        report(job);
+        scraperRequestsCounter.increment();
+
+        long started = System.nanoTime();
+        Scraped scraped;
+        try {
+            Attempt attempt = fetchOverHttp(job, item.listed()::add, () -> true, started, started);
+            if (attempt == null) {
+                attempt = extract(page, job, item.listed()::add, () -> true, started, started);
+            }
+            scraped = new Scraped(job, attempt.stream(), attempt.found(), attempt.tracker());
+        } catch (Exception e) {
+            log.error("Batch query '{}' failed for retailer {}: {}", job.getSearchQuery(), retailer, e.getMessage(), e);
+            fail(job, e.getMessage() != null ? e.getMessage() : "Unknown error");
+            report(job);
+            scraped = new Scraped(job, null, 0, null);
+        }
+        long elapsed = System.nanoTime() - started;
+        scraperTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        Timer.builder("scraper_batch_query_seconds")
+                .description("Time to scrape one batch query, by whether its browser context was already warm")
+                .tags("retailer", retailer.name(), "context", warm ? "warm" : "cold")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        emit(scraped).whenComplete((result, ex) -> {
+            if (ex != null) {
+                item.result().completeExceptionally(ex);
+            } else {
+                item.result().complete(result);
+            }
+        });
+    }
+
+    /**
+     * Hands the job to whichever replica owns its retailer's command partition. The returned
+     * future completes when that replica reports the job finished, or fails the job after
+     * the command timeout.
+     */
+    private CompletableFuture<ScrapingJobDTO> dispatch(ScrapingJobDTO job) {
+        CompletableFuture<ScrapingJobDTO> result = new CompletableFuture<>();
+        dispatched.put(job.getJobId(), result);
+
+        commandPublisher.dispatch(job).whenComplete((sent, ex) -> {
+            if (ex != null) {
+                log.error("Failed to dispatch scrape job {} for {}: {}", job.getJobId(), job.getRetailer(), ex.getMessage());
+                abandon(job, result, "Could not dispatch scrape command: " + ex.getMessage());
+            }
         });
+        CompletableFuture.delayedExecutor(sharding.getCommandTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .execute(() -> abandon(job, result, "No scraper replica finished the job within "
+                        + sharding.getCommandTimeout()));
+        return result;
+    }
+
+    private void abandon(ScrapingJobDTO job, CompletableFuture<ScrapingJobDTO> result, String reason) {
+        if (dispatched.remove(job.getJobId(), result)) {
+            fail(job, reason);
+            jobRegistry.update(job);
+            result.complete(job);
+        }
+    }
+
+    /**
+     * Runs a job dispatched by {@code command.origin()}, reporting its state changes back to
+     * that replica instead of recording them here.
+     */
+    public void execute(ScrapeCommand command) {
+        ScrapingJobDTO job = ScrapingJobDTO.builder()
+                .jobId(command.jobId())
+                .retailer(command.retailer())
+                .searchQuery(command.searchQuery())
+                .status(JobStatus.PENDING)
+                .build();
+        remoteOrigins.put(job.getJobId(), command.origin());
+        run(job, product -> { }).whenComplete((result, ex) -> remoteOrigins.remove(job.getJobId()));
+    }
+
+    /**
+     * Applies a state change reported by the replica running one of this instance's jobs.
+     */
+    public void onRemoteUpdate(ScrapingJobDTO job) {
+        CompletableFuture<ScrapingJobDTO> result = dispatched.get(job.getJobId());
+        if (result == null) {
+            // Already finished or timed out here
+            return;
+        }
+        jobRegistry.update(job);
+        if (ScrapeJob.isTerminal(job.getStatus()) && dispatched.remove(job.getJobId(), result)) {
+            if (job.getStatus() == JobStatus.CANCELLED) {
+                result.completeExceptionally(new ScrapingRejectedException(job.getErrorMessage()));
+            } else {
+                result.complete(job);
+            }
+        }
+    }
+
+    private void report(ScrapingJobDTO job) {
+        String origin = remoteOrigins.get(job.getJobId());
+        if (origin != null) {
+            commandPublisher.report(origin, job);
+        } else {
+            jobRegistry.update(job);
+        }
+    }
+
+    private ScrapingJobDTO register(Retailer retailer, String searchQuery) {
+        ScrapingJobDTO job = ScrapingJobDTO.builder()
+                .jobId(UUID.randomUUID().toString())
+                .retailer(retailer)
+                .searchQuery(searchQuery)
+                .status(JobStatus.PENDING)
+                .build();
+        jobRegistry.update(job);
+        return job;
+    }
+
+    /**
+     * Runs {@code job} locally; {@code extracted} sees every product extracted, changed or not.
+     */
+    private CompletableFuture<ScrapingJobDTO> run(ScrapingJobDTO job, ProductSink extracted) {
+        return scrapeScheduler.submit(job.getRetailer(), () -> scrape(job, extracted))
+                .thenCompose(this::emit)
+                .whenComplete((result, ex) -> {
+                    if (ex != null && rootCause(ex) instanceof ScrapingRejectedException) {
+                        job.setStatus(JobStatus.CANCELLED);
+                        job.setErrorMessage(rootCause(ex).getMessage());
+                        job.setCompletedAt(LocalDateTime.now());
+                        report(job);
+                    }
+                });
+    }
+
+    /**
+     * Runs on a scheduler worker while holding a browser lease. The job is returned still
+     * {@code IN_PROGRESS}; it completes once its records are acknowledged by Kafka, which
+     * happens after the worker and the browser have been released. If the job has produced
+     * nothing by the retailer's hedge delay, a second attempt starts in a fresh context on an
+     * idle worker; whichever attempt produces first owns the job and the other is discarded.
+     */
+    private Scraped scrape(ScrapingJobDTO job, ProductSink extracted) {
+        Retailer retailer = job.getRetailer();
+        // Wait for the retailer's budget before taking a browser; too long a wait rejects the job
+        Duration waited = politeness.awaitTurn(retailer);
+        if (!waited.isZero()) {
+            log.debug("Job {} waited {}ms for {} politeness budget", job.getJobId(), waited.toMillis(), retailer);
+        }
+        job.setStatus(JobStatus.IN_PROGRESS);
+        job.setStartedAt(LocalDateTime.now());
+        report(job);
+
+        scraperRequestsCounter.increment();
+
+        long started = System.nanoTime();
+        return scraperTimer.record(() -> {
+            try {
+                Attempt attempt = hedged(job, extracted, started);
+                return new Scraped(job, attempt.stream(), attempt.found(), attempt.tracker());
+            } catch (Exception e) {
+                log.error("Scraping job {} failed for retailer {}: {}",
+                        job.getJobId(), retailer, e.getMessage(), e);
+
+                fail(job, e.getMessage() != null ? e.getMessage() : "Unknown error");
+                report(job);
+                return new Scraped(job, null, 0, null);
+            }
+        });
+    }
+
+    private Attempt hedged(ScrapingJobDTO job, ProductSink extracted, long started) {
+        Retailer retailer = job.getRetailer();
+        Race race = new Race();
+        latencyTracker.hedgeDelay(retailer).ifPresent(delay -> CompletableFuture
+                .delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS)
+                .execute(() -> race.hedge(() -> scrapeScheduler.trySubmit(retailer,
+                        () -> attempt(job, extracted, race, Race.HEDGE, started)))));
+
+        Attempt primary;
+        try {
+            primary = attempt(job, extracted, race, Race.PRIMARY, started);
+        } catch (RuntimeException e) {
+            CompletableFuture<Attempt> hedge = race.settle();
+            if (hedge == null) {
+                throw e;
+            }
+            log.warn("Job {} primary attempt failed, waiting for its hedge: {}", job.getJobId(), e.getMessage());
+            Attempt hedged = join(hedge);
+            if (hedged == null) {
+                throw e;
+            }
+            hedges(retailer, "won").increment();
+            return hedged;
+        }
+
+        CompletableFuture<Attempt> hedge = race.settle();
+        if (primary != null) {
+            if (hedge != null) {
+                hedges(retailer, "lost").increment();
+            }
+            return primary;
+        }
+        // The hedge produced first, so it owns the job
+        hedges(retailer, "won").increment();
+        return join(hedge);
+    }
+
+    /**
+     * One try at the job with its own browser context. Returns {@code null} if another attempt
+     * of the same job produced first, in which case nothing from this one was used.
+     */
+    private Attempt attempt(ScrapingJobDTO job, ProductSink extracted, Race race, int id, long jobStarted) {
+        Retailer retailer = job.getRetailer();
+        String searchQuery = job.getSearchQuery();
+        long attemptStarted = System.nanoTime();
+        if (id == Race.HEDGE) {
+            hedges(retailer, "launched").increment();
+            log.info("Hedging job {} for {} in a fresh context", job.getJobId(), retailer);
+        }
+
+        if (id == Race.PRIMARY) {
+            Attempt fetched = fetchOverHttp(job, extracted, () -> race.claim(id), jobStarted, attemptStarted);
+            if (fetched != null) {
+                return race.claim(id) ? fetched : null;
+            }
+        }
+
+        try (BrowserLease lease = browserPool.lease(retailer)) {
+            // Routes run newest-first: the fast-mode blocker sees requests before replay does
+            FixtureArchive.Session fixtures = fixtureArchive.open(lease.context(), retailer, searchQuery);
+            ResourceBlocker.TrafficStats traffic = resourceBlocker.install(lease.context(), retailer);
+            Page page = lease.context().newPage();
+
+            Attempt attempt = extract(page, job, extracted, () -> race.claim(id), jobStarted, attemptStarted);
+            resourceBlocker.record(traffic);
+            fixtures.save();
+
+            return race.claim(id) ? attempt : null;
+        }
+    }
+
+    /**
+     * Runs the retailer's strategy for {@code job} on a prepared page, streaming products to
+     * Kafka as they are parsed. Products are dropped unless {@code owns} holds when they arrive.
+     */
+    private Attempt extract(Page page, ScrapingJobDTO job, ProductSink extracted, BooleanSupplier owns,
+                            long jobStarted, long attemptStarted) {
+        Retailer retailer = job.getRetailer();
+        String searchQuery = job.getSearchQuery();
+        ScraperStrategy strategy = strategyFactory.getStrategy(retailer);
+        if (strategy == null) {
+            throw new ScrapingException("No scraper strategy found for retailer: " + retailer);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "failed";
+        ScrapeFingerprints.Tracker tracker = fingerprints.begin(page, retailer, searchQuery);
+        ProductEmitter.Stream stream = productEmitter.open(retailer);
+        AtomicInteger found = new AtomicInteger();
+        try {
+            // Products go to Kafka as they are parsed; send() blocks while the in-flight window is full
+            strategy.scrape(page, searchQuery,
+                    deliver(retailer, stream, tracker, found, extracted, owns, jobStarted, attemptStarted));
+            outcome = found.get() > 0 || (tracker != null && tracker.unchanged()) ? "success" : "empty";
+        } finally {
+            fingerprints.end(tracker);
+            httpFetcher.record(retailer, HttpFetcher.BROWSER, outcome, System.nanoTime() - start);
+        }
+
+        int listed = tracker != null && tracker.unchanged() ? tracker.knownProducts() : found.get();
+        return new Attempt(stream, listed, tracker);
+    }
+
+    /**
+     * Tries the retailer's browserless fetch path for {@code job}. Returns {@code null} if it
+     * has none or the response needs a browser, in which case the caller goes on to Playwright.
+     */
+    private Attempt fetchOverHttp(ScrapingJobDTO job, ProductSink extracted, BooleanSupplier owns,
+                                  long jobStarted, long attemptStarted) {
+        Retailer retailer = job.getRetailer();
+        if (fixtureArchive.isActive()
+                || !(strategyFactory.getStrategy(retailer) instanceof TileScraper strategy)
+                || !httpFetcher.supports(retailer, strategy)) {
+            return null;
+        }
+        // Staged like the browser path's, and committed by emit() once Kafka has acknowledged the job
+        ScrapeFingerprints.Tracker tracker = fingerprints.begin(retailer, job.getSearchQuery());
+        List<ProductDTO> products = httpFetcher.fetch(retailer, strategy, job.getSearchQuery(), tracker);
+        if (products == null) {
+            return null;
+        }
+
+        ProductEmitter.Stream stream = productEmitter.open(retailer);
+        AtomicInteger found = new AtomicInteger();
+        ProductSink sink = deliver(retailer, stream, tracker, found, extracted, owns, jobStarted, attemptStarted);
+        products.forEach(sink::accept);
+        int listed = tracker != null && tracker.unchanged() ? tracker.knownProducts() : found.get();
+        return new Attempt(stream, listed, tracker);
+    }
+
+    /**
+     * The sink a strategy's products go through: each is handed to {@code extracted} and, if
+     * its fingerprint changed, to Kafka, while {@code owns} holds.
+     */
+    private ProductSink deliver(Retailer retailer, ProductEmitter.Stream stream, ScrapeFingerprints.Tracker tracker,
+                                AtomicInteger found, ProductSink extracted, BooleanSupplier owns,
+                                long jobStarted, long attemptStarted) {
+        return product -> {
+            if (product == null || (tracker != null && tracker.unchanged())) {
+                // Nothing was extracted; whatever the strategy fell back to is not real data
+                return;
+            }
+            if (!owns.getAsBoolean()) {
+                return;
+            }
+            if (found.getAndIncrement() == 0) {
+                long now = System.nanoTime();
+                timeToFirstProduct(retailer).record(now - jobStarted, TimeUnit.NANOSECONDS);
+                latencyTracker.record(retailer, LatencyTracker.Phase.FIRST_PRODUCT, now - attemptStarted);
+            }
+            extracted.accept(product);
+            if (fingerprints.changed(tracker, product)) {
+                stream.send(product);
+            }
+        };
+    }
+
+    private static Attempt join(CompletableFuture<Attempt> hedge) {
+        try {
+            return hedge.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Counter hedges(Retailer retailer, String outcome) {
+        return Counter.builder("scraper_hedges_total")
+                .description("Hedged scrape attempts by whether they were launched, won or lost to the primary")
+                .tags("retailer", retailer.name(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private CompletableFuture<ScrapingJobDTO> emit(Scraped scraped) {
+        ScrapingJobDTO job = scraped.job();
+        if (job.getStatus() == JobStatus.FAILED) {
+            return CompletableFuture.completedFuture(job);
+        }
+
+        return scraped.stream().finish()
+                .handle((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Kafka emission failed for job {}: {}", job.getJobId(), ex.getMessage(), ex);
+                        fail(job, "Kafka emission failed: " + ex.getMessage());
+                    } else if (result.failed() > 0) {
+                        fail(job, "Kafka acknowledged " + result.acknowledged() + " of "
+                                + (result.acknowledged() + result.failed()) + " changed products");
+                        job.setProductsScraped(scraped.found());
+                    } else {
+                        fingerprints.commit(scraped.tracker());
+                        job.setStatus(JobStatus.COMPLETED);
+                        job.setProductsScraped(scraped.found());
+                        job.setCompletedAt(LocalDateTime.now());
+                        job.setDurationMs(Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis());
+
+                        log.info("Scraping job {} completed. Scraped {} products from {}, published {} new or changed, suppressed {} recently sent",
+                                job.getJobId(), scraped.found(), job.getRetailer(), result.acknowledged(), result.suppressed());
+                    }
+                    report(job);
+                    return job;
+                });
+    }
+
+    private static void fail(ScrapingJobDTO job, String message) {
+        job.setStatus(JobStatus.FAILED);
+        job.setErrorMessage(message);
+        job.setCompletedAt(LocalDateTime.now());
+        if (job.getStartedAt() != null) {
+            job.setDurationMs(Duration.between(job.getStartedAt(), job.getCompletedAt()).toMillis());
+        }
     }
 
     public CompletableFuture<List<ScrapingJobDTO>> scrapeAllRetailers(String searchQuery) {
@@ -164,32 +681,135 @@ public class PlaywrightScraperService {
         List<CompletableFuture<ScrapingJobDTO>> futures = new ArrayList<>();
 
         for (Retailer retailer : Retailer.values()) {
-            try {
-                futures.add(scrapeRetailer(retailer, searchQuery));
-            } catch (Exception e) {
-                log.error("Failed to initiate scraping for retailer {}: {}", retailer, e.getMessage());
+            ScrapeCoalescer.Flight flight = start(retailer, searchQuery.trim());
+            futures.add(flight.result().exceptionally(ex -> rejectedOrNull(flight.job(), ex)));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    List<ScrapingJobDTO> jobs = futures.stream()
+                            .map(CompletableFuture::join)
+                            .filter(job -> job != null)
+                            .toList();
+
+                    if (!jobs.isEmpty() && jobs.stream().allMatch(job -> job.getStatus() == JobStatus.CANCELLED)) {
+                        Duration retryAfter = jobs.stream()
+                                .map(job -> politeness.estimateWait(job.getRetailer()))
+                                .min(Duration::compareTo)
+                                .filter(wait -> !wait.isZero())
+                                .orElse(null);
+                        throw new ScrapingRejectedException("All retailer scrape queues are full", retryAfter);
+                    }
+                    return jobs;
+                });
+    }
+
+    /**
+     * Starts every retailer and streams each one's job and products as soon as it finishes,
+     * instead of waiting for the slowest. Retailers still running when {@code deadline} passes
+     * are reported as having missed it and the stream closes; their jobs carry on.
+     */
+    public SseEmitter streamAllRetailers(String searchQuery, Duration deadline) {
+        // The emitter outlives the deadline slightly so the final events can still be written
+        SseEmitter emitter = new SseEmitter(deadline.plusSeconds(5).toMillis());
+        Map<Retailer, ScrapeCoalescer.Flight> flights = new EnumMap<>(Retailer.class);
+        ScrapeAllStream stream = new ScrapeAllStream(emitter, EnumSet.allOf(Retailer.class));
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> stream.close());
+
+        for (Retailer retailer : Retailer.values()) {
+            ScrapeCoalescer.Flight flight = start(retailer, searchQuery);
+            flights.put(retailer, flight);
+            flight.result().whenComplete((job, ex) -> {
+                if (ex == null) {
+                    stream.finished(job, job.getStatus() == JobStatus.COMPLETED ? flight.products() : List.of());
+                } else {
+                    ScrapingJobDTO rejected = rejectedOrNull(flight.job(), ex);
+                    stream.finished(rejected != null ? rejected : currentState(flight), List.of());
+                }
+            });
+        }
+
+        CompletableFuture.delayedExecutor(deadline.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            Map<Retailer, ScrapingJobDTO> current = new EnumMap<>(Retailer.class);
+            flights.forEach((retailer, flight) -> current.put(retailer, currentState(flight)));
+            stream.expire(current);
+        });
+        return emitter;
+    }
+
+    private ScrapingJobDTO currentState(ScrapeCoalescer.Flight flight) {
+        return jobRegistry.find(flight.job().getJobId()).orElse(flight.job());
+    }
+
+    private ScrapingJobDTO rejectedOrNull(ScrapingJobDTO job, Throwable ex) {
+        Throwable cause = rootCause(ex);
+        if (cause instanceof ScrapingRejectedException) {
+            log.warn("Scrape of {} for '{}' rejected: {}", job.getRetailer(), job.getSearchQuery(), cause.getMessage());
+            return job;
+        }
+
+        log.error("Error scraping retailer {}: {}", job.getRetailer(), cause.getMessage());
+        return null;
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private Timer timeToFirstProduct(Retailer retailer) {
+        return Timer.builder("scraper_time_to_first_product_seconds")
+                .description("Time from a job starting until its first product was extracted")
+                .tag("retailer", retailer.name())
+                .register(meterRegistry);
+    }
+
+    private record BatchItem(ScrapingJobDTO job, CompletableFuture<ScrapingJobDTO> result, List<ProductDTO> listed) {
+    }
+
+    private record Attempt(ProductEmitter.Stream stream, int found, ScrapeFingerprints.Tracker tracker) {
+    }
+
+    /**
+     * Decides which of a job's attempts owns it: the first to produce a product or, if none
+     * does, the first to finish. A hedge is only started while the primary is still running.
+     */
+    private static final class Race {
+        static final int PRIMARY = 0;
+        static final int HEDGE = 1;
+
+        private int winner = -1;
+        private boolean settled;
+        private CompletableFuture<Attempt> hedge;
+
+        synchronized boolean claim(int attempt) {
+            if (winner < 0) {
+                winner = attempt;
             }
+            return winner == attempt;
         }
 
-        if (futures.isEmpty()) {
-            return CompletableFuture.completedFuture(new ArrayList<>());
+        synchronized void hedge(Supplier<CompletableFuture<Attempt>> launcher) {
+            if (!settled && winner < 0) {
+                hedge = launcher.get();
+            }
         }
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                        .map(future -> {
-                            try {
-                                return future.join();
-                            } catch (Exception e) {
-                                log.error("Error joining scraping future: {}", e.getMessage());
-                                return null;
-                            }
-                        })
-                        .filter(job -> job != null)
-                        .toList())
-                .exceptionally(ex -> {
-                    log.error("Error in scrapeAllRetailers: {}", ex.getMessage());
-                    return new ArrayList<>();
-                });
+        /**
+         * Stops any further hedge from starting and returns the one already running, if any.
+         */
+        synchronized CompletableFuture<Attempt> settle() {
+            settled = true;
+            return hedge;
+        }
+    }
+
+    /**
+     * A scraped job awaiting emission: {@code stream} holds its new or changed products still
+     * in flight, {@code found} is how many the retailer currently lists.
+     */
+    private record Scraped(ScrapingJobDTO job, ProductEmitter.Stream stream, int found,
+                           ScrapeFingerprints.Tracker tracker) {
     }
 }
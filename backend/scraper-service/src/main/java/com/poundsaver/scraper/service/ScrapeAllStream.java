@@ -0,0 +1,94 @@
+package com.poundsaver.scraper.service;
+
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.Retailer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One client's scrape-all event stream. Each retailer is sent as a {@code retailer} event when
+ * its job finishes, or as a {@code deadline} event if the overall deadline passes first, and a
+ * final {@code complete} event closes the stream. Retailers finish on scheduler workers and
+ * Kafka callbacks concurrently, so sends are serialized here.
+ */
+final class ScrapeAllStream {
+
+    private final SseEmitter emitter;
+    private final Set<Retailer> pending;
+    private int finished;
+    private int missed;
+    private boolean closed;
+
+    ScrapeAllStream(SseEmitter emitter, Set<Retailer> retailers) {
+        this.emitter = emitter;
+        this.pending = EnumSet.copyOf(retailers);
+    }
+
+    synchronized void finished(ScrapingJobDTO job, List<ProductDTO> products) {
+        if (closed || !pending.remove(job.getRetailer())) {
+            return;
+        }
+        finished++;
+        send("retailer", job.getRetailer(), new RetailerResult(job, products, false));
+        if (pending.isEmpty()) {
+            complete();
+        }
+    }
+
+    /**
+     * Reports every retailer still running as having missed the deadline, then closes the
+     * stream. Their jobs keep running and can be followed through the job endpoints.
+     */
+    synchronized void expire(Map<Retailer, ScrapingJobDTO> current) {
+        if (closed) {
+            return;
+        }
+        for (Retailer retailer : pending) {
+            missed++;
+            send("deadline", retailer, new RetailerResult(current.get(retailer), List.of(), true));
+        }
+        pending.clear();
+        complete();
+    }
+
+    synchronized void close() {
+        closed = true;
+    }
+
+    private void send(String name, Retailer retailer, RetailerResult result) {
+        if (closed) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).id(retailer.name()).data(result));
+        } catch (IOException | IllegalStateException e) {
+            closed = true;
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void complete() {
+        if (closed) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("complete").data(Map.of("finished", finished, "missedDeadline", missed)));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+        closed = true;
+    }
+
+    /**
+     * {@code missedDeadline} jobs carry their state when the deadline passed.
+     */
+    record RetailerResult(ScrapingJobDTO job, List<ProductDTO> products, boolean missedDeadline) {
+    }
+}
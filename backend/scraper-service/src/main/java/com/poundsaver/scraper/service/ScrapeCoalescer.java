@@ -0,0 +1,185 @@
+package com.poundsaver.scraper.service;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of scrape jobs. Callers asking for the same retailer and
+ * normalised query while a job is running attach to that job instead of starting another,
+ * and a successful result keeps being handed out for a short reuse window afterwards.
+ * Failed, cancelled and rejected jobs are forgotten as soon as they finish.
+ */
+@Component
+public class ScrapeCoalescer {
+
+    private final ScraperProperties.Coalescing settings;
+    private final Map<Key, CompletableFuture<Flight>> flights = new ConcurrentHashMap<>();
+    private final Map<Retailer, Counter[]> outcomes = new EnumMap<>(Retailer.class);
+
+    public ScrapeCoalescer(ScraperProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getCoalescing();
+        for (Retailer retailer : Retailer.values()) {
+            Counter[] counters = new Counter[Outcome.values().length];
+            for (Outcome outcome : Outcome.values()) {
+                counters[outcome.ordinal()] = Counter.builder("scraper_coalesced_requests_total")
+                        .description("Scrape requests by whether they started a job, joined one in flight or reused a recent result")
+                        .tags("retailer", retailer.name(), "outcome", outcome.tag)
+                        .register(meterRegistry);
+            }
+            outcomes.put(retailer, counters);
+        }
+        Gauge.builder("scraper_coalesced_flights", flights, Map::size)
+                .description("Distinct retailer and query pairs currently running or reusable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the flight for {@code retailer} and {@code query}, calling {@code launcher} to
+     * start one only if no usable flight exists. The launcher runs outside any map operation;
+     * callers arriving while it runs wait for the flight it starts.
+     */
+    public Flight join(Retailer retailer, String query, Supplier<Flight> launcher) {
+        if (!settings.isEnabled()) {
+            return launcher.get();
+        }
+
+        Key key = new Key(retailer, normalise(query));
+        long window = settings.getReuseWindow().toNanos();
+        CompletableFuture<Flight> launch = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Flight> existing = flights.putIfAbsent(key, launch);
+            if (existing == null) {
+                return lead(retailer, key, launch, launcher);
+            }
+            Flight flight;
+            try {
+                // Launching only registers and submits the job, so this wait is short
+                flight = existing.join();
+            } catch (CompletionException | CancellationException e) {
+                // The leader could not start its job; take over
+                flights.remove(key, existing);
+                continue;
+            }
+            if (flight.usable(window)) {
+                outcomes.get(retailer)[(flight.result.isDone() ? Outcome.REUSED : Outcome.JOINED).ordinal()].increment();
+                return flight;
+            }
+            flights.remove(key, existing);
+        }
+    }
+
+    private Flight lead(Retailer retailer, Key key, CompletableFuture<Flight> launch, Supplier<Flight> launcher) {
+        Flight flight;
+        try {
+            flight = launcher.get();
+        } catch (RuntimeException e) {
+            flights.remove(key, launch);
+            launch.completeExceptionally(e);
+            throw e;
+        }
+        launch.complete(flight);
+        outcomes.get(retailer)[Outcome.LEADER.ordinal()].increment();
+
+        // A rejected job completes synchronously, so this may remove the flight straight away
+        flight.result.whenComplete((job, ex) -> {
+            if (ex != null || job == null || job.getStatus() != JobStatus.COMPLETED) {
+                flights.remove(key, launch);
+            } else {
+                flight.landedAt = System.nanoTime();
+            }
+        });
+        return flight;
+    }
+
+    @Scheduled(fixedDelayString = "${scraper.coalescing.sweep-interval-ms:30000}")
+    public void evictExpired() {
+        long window = settings.getReuseWindow().toNanos();
+        flights.entrySet().removeIf(entry -> {
+            CompletableFuture<Flight> launch = entry.getValue();
+            // Flights still being launched are left to their leader
+            return launch.isDone() && (launch.isCompletedExceptionally() || !launch.join().usable(window));
+        });
+    }
+
+    static String normalise(String query) {
+        return query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private record Key(Retailer retailer, String query) {
+    }
+
+    private enum Outcome {
+        LEADER("leader"),
+        JOINED("joined"),
+        REUSED("reused");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * A running or recently finished job, its eventual result and the products it extracted.
+     */
+    public static final class Flight {
+        private final ScrapingJobDTO job;
+        private final CompletableFuture<ScrapingJobDTO> result;
+        private final List<ProductDTO> products;
+        private volatile long landedAt;
+
+        public Flight(ScrapingJobDTO job, CompletableFuture<ScrapingJobDTO> result, List<ProductDTO> products) {
+            this.job = job;
+            this.result = result;
+            this.products = products;
+        }
+
+        public ScrapingJobDTO job() {
+            return job;
+        }
+
+        /**
+         * Products extracted so far. Empty for jobs run on another replica, and for jobs whose
+         * results page was unchanged since the previous scrape, since nothing was extracted.
+         */
+        public List<ProductDTO> products() {
+            synchronized (products) {
+                return List.copyOf(products);
+            }
+        }
+
+        /**
+         * A view of the shared result; completing or cancelling it does not affect other callers.
+         */
+        public CompletableFuture<ScrapingJobDTO> result() {
+            return result.copy();
+        }
+
+        private boolean usable(long reuseWindowNanos) {
+            if (!result.isDone()) {
+                return true;
+            }
+            long landed = landedAt;
+            return landed != 0 && System.nanoTime() - landed <= reuseWindowNanos;
+        }
+    }
+}
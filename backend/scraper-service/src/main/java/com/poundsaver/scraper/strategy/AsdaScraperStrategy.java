@@ -1,9 +1,13 @@
 package com.poundsaver.scraper.strategy;
 
-import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
 import com.poundsaver.shared.util.PriceCalculator;
+import com.poundsaver.shared.util.PriceParser;
+import com.poundsaver.shared.util.ProductIdentity;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -11,111 +15,119 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Slf4j
 @Component
-public class AsdaScraperStrategy implements ScraperStrategy {
+@RequiredArgsConstructor
+public class AsdaScraperStrategy implements TileScraper {
 
     private static final String ASDA_BASE_URL = "https://groceries.asda.com";
     private static final String SEARCH_URL = ASDA_BASE_URL + "/search/";
 
+    // Asda's taxonomy is dept > aisle > shelf, all linked from the groceries home page
+    private static final CrawlSpec CRAWL_SPEC = new CrawlSpec(
+            List.of(ASDA_BASE_URL + "/"),
+            "a[href*='/dept/'], a[href*='/aisle/'], a[href*='/shelf/'], a.co-pagination__arrow--right",
+            ASDA_BASE_URL + "/");
+
+    private static final TileSelectors TILE_SELECTORS = TileSelectors.of("div.co-product", Map.of(
+            "name", FieldSelector.text("a.co-product__anchor"),
+            "price", FieldSelector.text("strong.co-product__price"),
+            "imageUrl", FieldSelector.attribute("img.co-product__image", "src"),
+            "productUrl", FieldSelector.attribute("a.co-product__anchor", "href")));
+
+    private final ScrapeEngine engine;
+
+    @Override
+    public TileSelectors tileSelectors() {
+        return TILE_SELECTORS;
+    }
+
+    @Override
+    public ReadinessCondition readiness() {
+        // Asda renders its result grid in batches after the first tiles appear
+        return ReadinessCondition.countStable(TILE_SELECTORS.tile(), 300);
+    }
+
+    @Override
+    public CrawlSpec crawlSpec() {
+        return CRAWL_SPEC;
+    }
+
     @Override
     public List<ProductDTO> scrape(Page page, String searchQuery) {
         List<ProductDTO> products = new ArrayList<>();
+        scrape(page, searchQuery, products::add);
+        return products;
+    }
+
+    @Override
+    public void scrape(Page page, String searchQuery, ProductSink sink) {
 
         try {
             String url = SEARCH_URL + searchQuery.replace(" ", "%20");
             log.info("Navigating to Asda: {}", url);
 
-            page.navigate(url);
-            page.waitForLoadState();
-            page.waitForTimeout(2000);
+            engine.loadPage(Retailer.ASDA, page, url, readiness());
 
-            List<ElementHandle> productElements = page.querySelectorAll("div.co-product");
+            List<Map<String, String>> tiles = engine.extractTiles(Retailer.ASDA, page, TILE_SELECTORS);
 
-            log.info("Found {} product elements on Asda", productElements.size());
-
-            for (ElementHandle element : productElements) {
-                try {
-                    ProductDTO product = extractProductData(element);
-                    if (product != null) {
-                        products.add(product);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to extract product data from element: {}", e.getMessage());
-                }
-            }
+            log.info("Found {} product elements on Asda", tiles.size());
+            scrapeTiles(tiles, sink);
 
+        } catch (ScrapingException e) {
+            // Blocks and captchas must fail the job so the retailer backs off
+            throw e;
         } catch (Exception e) {
             log.error("Error scraping Asda: {}", e.getMessage(), e);
         }
+    }
 
-        return products;
+    @Override
+    public void scrapeTiles(List<Map<String, String>> tiles, ProductSink sink) {
+        for (Map<String, String> tile : tiles) {
+            try {
+                ProductDTO product = extractProductData(tile);
+                if (product != null) {
+                    sink.accept(product);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to extract product data from element: {}", e.getMessage());
+            }
+        }
     }
 
-    private ProductDTO extractProductData(ElementHandle element) {
+    private ProductDTO extractProductData(Map<String, String> tile) {
         try {
-            String name = extractText(element, "a.co-product__anchor");
-            String priceText = extractText(element, "strong.co-product__price");
-            String imageUrl = extractAttribute(element, "img.co-product__image", "src");
-            String productUrl = extractAttribute(element, "a.co-product__anchor", "href");
+            String name = tile.get("name");
+            String priceText = tile.get("price");
+            String imageUrl = tile.get("imageUrl");
+            String productUrl = tile.get("productUrl");
 
             if (name == null || priceText == null) {
                 return null;
             }
 
-            BigDecimal price = parsePrice(priceText);
-            BigDecimal pricePerUnit = PriceCalculator.calculatePricePerUnit(price, name, null);
+            BigDecimal price = PriceParser.parsePounds(priceText);
+            PriceCalculator.Quantity quantity = PriceCalculator.parseQuantity(name, null);
+            BigDecimal pricePerUnit = PriceCalculator.pricePerDisplayUnit(price, quantity);
 
-            return ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            return ProductIdentity.assign(ProductDTO.builder()
                     .name(name)
                     .retailer("ASDA")
                     .price(price)
                     .pricePerUnit(pricePerUnit)
-                    .unit(PriceCalculator.normalizeUnit("per unit"))
+                    .unit(PriceCalculator.displayUnit(quantity))
                     .inStock(true)
                     .imageUrl(imageUrl)
                     .productUrl(productUrl != null ? ASDA_BASE_URL + productUrl : null)
                     .scrapedAt(LocalDateTime.now())
-                    .build();
+                    .build());
 
         } catch (Exception e) {
             log.warn("Error extracting product data: {}", e.getMessage());
             return null;
         }
     }
-
-    private String extractText(ElementHandle parent, String selector) {
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.textContent().trim() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String extractAttribute(ElementHandle parent, String selector, String attribute) {
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.getAttribute(attribute) : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private BigDecimal parsePrice(String priceText) {
-        if (priceText == null || priceText.isEmpty()) {
-            return null;
-        }
-
-        try {
-            String cleaned = priceText.replaceAll("[^0-9.]", "");
-            return new BigDecimal(cleaned);
-        } catch (NumberFormatException e) {
-            log.warn("Failed to parse price: {}", priceText);
-            return null;
-        }
-    }
 }
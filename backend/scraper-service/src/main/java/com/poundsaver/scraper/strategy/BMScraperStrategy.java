@@ -2,6 +2,7 @@ package com.poundsaver.scraper.strategy;
 
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.util.ProductIdentity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -9,7 +10,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Slf4j
 @Component
@@ -24,8 +24,7 @@ public class BMScraperStrategy implements ScraperStrategy {
         try {
             log.info("Scraping B&M for: {}", searchQuery);
 
-            ProductDTO mockProduct = ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            ProductDTO mockProduct = ProductIdentity.assign(ProductDTO.builder()
                     .name("B&M " + searchQuery + " 500g")
                     .retailer("BM")
                     .price(new BigDecimal("0.99"))
@@ -35,7 +34,7 @@ public class BMScraperStrategy implements ScraperStrategy {
                     .imageUrl(BM_BASE_URL + "/placeholder.jpg")
                     .productUrl(BM_BASE_URL)
                     .scrapedAt(LocalDateTime.now())
-                    .build();
+                    .build());
 
             products.add(mockProduct);
 
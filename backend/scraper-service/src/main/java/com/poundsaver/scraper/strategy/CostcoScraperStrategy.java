@@ -2,6 +2,7 @@ package com.poundsaver.scraper.strategy;
 
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.util.ProductIdentity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -9,7 +10,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Slf4j
 @Component
@@ -24,8 +24,7 @@ public class CostcoScraperStrategy implements ScraperStrategy {
         try {
             log.info("Scraping Costco for: {}", searchQuery);
 
-            ProductDTO mockProduct = ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            ProductDTO mockProduct = ProductIdentity.assign(ProductDTO.builder()
                     .name("Costco " + searchQuery + " Bulk Pack 5kg")
                     .retailer("COSTCO")
                     .price(new BigDecimal("8.99"))
@@ -36,7 +35,7 @@ public class CostcoScraperStrategy implements ScraperStrategy {
                     .imageUrl(COSTCO_BASE_URL + "/placeholder.jpg")
                     .productUrl(COSTCO_BASE_URL)
                     .scrapedAt(LocalDateTime.now())
-                    .build();
+                    .build());
 
             products.add(mockProduct);
 
@@ -0,0 +1,15 @@
+package com.poundsaver.scraper.strategy;
+
+import java.util.List;
+
+/**
+ * How to walk a retailer's catalogue: the category pages to start from, a selector for the
+ * category and pagination links on each listing page, and the URL prefix a link must have to
+ * be followed, which keeps the crawl off product detail and account pages.
+ */
+public record CrawlSpec(List<String> seeds, String linkSelector, String scope) {
+
+    public boolean follows(String url) {
+        return url != null && url.startsWith(scope);
+    }
+}
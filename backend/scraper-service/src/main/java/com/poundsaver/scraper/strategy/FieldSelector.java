@@ -0,0 +1,16 @@
+package com.poundsaver.scraper.strategy;
+
+/**
+ * Where one product field lives inside a result tile: the text of the first element matching
+ * {@code selector}, or its {@code attribute} when one is given.
+ */
+public record FieldSelector(String selector, String attribute) {
+
+    public static FieldSelector text(String selector) {
+        return new FieldSelector(selector, null);
+    }
+
+    public static FieldSelector attribute(String selector, String attribute) {
+        return new FieldSelector(selector, attribute);
+    }
+}
@@ -2,58 +2,72 @@ package com.poundsaver.scraper.strategy;
 
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.shared.util.PriceParser;
+import com.poundsaver.shared.util.ProductIdentity;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class HotDealsScraperStrategy implements ScraperStrategy {
 
+    private static final TileSelectors TILE_SELECTORS = TileSelectors.of(".deal-item, .thread, .post", Map.of(
+            "title", FieldSelector.text(".deal-title, .thread-title, .post-title, h3 a"),
+            "price", FieldSelector.text(".price, .deal-price, .amount, .cost"),
+            "url", FieldSelector.attribute(".deal-title a, .thread-title a, .post-title a", "href")))
+            .limit(10);
+
+    private final ScrapeEngine engine;
+
+    @Override
+    public TileSelectors tileSelectors() {
+        return TILE_SELECTORS;
+    }
+
     @Override
     public List<ProductDTO> scrape(Page page, String searchQuery) {
         List<ProductDTO> products = new ArrayList<>();
+        scrape(page, searchQuery, products::add);
+        return products;
+    }
+
+    @Override
+    public void scrape(Page page, String searchQuery, ProductSink sink) {
+        int emitted = 0;
         
         try {
             // Navigate to HotDeals UK search page
             String searchUrl = "https://www.hotdealsuk.com/search?q=" + searchQuery.replace(" ", "%20");
-            page.navigate(searchUrl, new Page.NavigateOptions().setTimeout(30000));
-            
-            // Wait for page to load
-            page.waitForLoadState("networkidle", new Page.WaitForLoadStateOptions().setTimeout(15000));
-            
-            // Wait for search results to appear
-            try {
-                page.waitForSelector(".deal-item, .thread, .post", new Page.WaitForSelectorOptions().timeout(10000));
-            } catch (Exception e) {
+            // Wait until deal tiles are attached, without waiting for the network to go idle
+            if (!engine.loadPage(Retailer.HOTDEALS, page, searchUrl, readiness())) {
                 // If no results found, return mock data
-                return createMockHotDealsProducts(searchQuery);
+                createMockHotDealsProducts(searchQuery).forEach(sink::accept);
+                return;
             }
             
-            // Extract deal information
-            List<String> dealTitles = page.locator(".deal-title, .thread-title, .post-title, h3 a").allInnerTexts();
-            List<String> dealPrices = page.locator(".price, .deal-price, .amount, .cost").allInnerTexts();
-            List<String> dealRetailers = page.locator(".retailer, .store, .merchant").allInnerTexts();
-            List<String> dealUrls = page.locator(".deal-title a, .thread-title a, .post-title a").allAttributeValues("href");
-            
-            // Process up to 10 deals
-            int maxDeals = Math.min(10, dealTitles.size());
-            for (int i = 0; i < maxDeals; i++) {
+            // Extract up to 10 deals in one pass over the page
+            List<Map<String, String>> deals = engine.extractTiles(Retailer.HOTDEALS, page, TILE_SELECTORS);
+            for (int i = 0; i < deals.size(); i++) {
                 try {
-                    String title = i < dealTitles.size() ? dealTitles.get(i) : "";
-                    String priceText = i < dealPrices.size() ? dealPrices.get(i) : "";
-                    String retailer = i < dealRetailers.size() ? dealRetailers.get(i) : "HotDeals";
-                    String url = i < dealUrls.size() ? dealUrls.get(i) : "";
+                    Map<String, String> deal = deals.get(i);
+                    String title = deal.get("title") != null ? deal.get("title") : "";
+                    String priceText = deal.get("price") != null ? deal.get("price") : "";
+                    String url = deal.get("url") != null ? deal.get("url") : "";
                     
                     // Extract price from text
-                    BigDecimal price = extractPrice(priceText);
-                    if (price.compareTo(BigDecimal.ZERO) > 0) {
-                        ProductDTO product = ProductDTO.builder()
-                                .id("HOTDEALS_" + System.currentTimeMillis() + "_" + i)
+                    BigDecimal price = PriceParser.parsePounds(priceText);
+                    if (price != null) {
+                        ProductDTO product = ProductIdentity.assign(ProductDTO.builder()
                                 .name(title)
                                 .retailer("HOTDEALS")
                                 .price(price)
@@ -63,9 +77,10 @@ public class HotDealsScraperStrategy implements ScraperStrategy {
                                 .scrapedAt(LocalDateTime.now())
                                 .lastUpdated(LocalDateTime.now())
                                 .matchConfidence(0.85)
-                                .build();
+                                .build());
                         
-                        products.add(product);
+                        sink.accept(product);
+                        emitted++;
                     }
                 } catch (Exception e) {
                     // Skip individual deal if error occurs
@@ -74,40 +89,18 @@ public class HotDealsScraperStrategy implements ScraperStrategy {
             }
             
             // If no real products found, return mock data
-            if (products.isEmpty()) {
-                return createMockHotDealsProducts(searchQuery);
+            if (emitted == 0) {
+                createMockHotDealsProducts(searchQuery).forEach(sink::accept);
+                return;
             }
             
+        } catch (ScrapingException e) {
+            // Blocks and captchas must fail the job so the retailer backs off
+            throw e;
         } catch (Exception e) {
             // Return mock data on any error
-            return createMockHotDealsProducts(searchQuery);
-        }
-        
-        return products;
-    }
-    
-    private BigDecimal extractPrice(String priceText) {
-        if (priceText == null || priceText.trim().isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-        
-        // Remove common currency symbols and text
-        String cleanedPrice = priceText.replaceAll("[£$€]", "")
-                                        .replaceAll("GBP", "")
-                                        .replaceAll("pence", "")
-                                        .replaceAll("p", "")
-                                        .replaceAll("[^0-9.]", "")
-                                        .trim();
-        
-        try {
-            double price = Double.parseDouble(cleanedPrice);
-            // Convert pence to pounds if needed
-            if (price < 10 && cleanedPrice.matches("\\d+\\.?\\d*")) {
-                price = price / 100;
-            }
-            return BigDecimal.valueOf(price);
-        } catch (NumberFormatException e) {
-            return BigDecimal.ZERO;
+            createMockHotDealsProducts(searchQuery).forEach(sink::accept);
+            return;
         }
     }
     
@@ -132,8 +125,7 @@ public class HotDealsScraperStrategy implements ScraperStrategy {
             double basePrice = 0.99 + (random.nextDouble() * 8.0);
             BigDecimal price = BigDecimal.valueOf(basePrice).setScale(2, BigDecimal.ROUND_HALF_UP);
             
-            ProductDTO product = ProductDTO.builder()
-                    .id("HOTDEALS_MOCK_" + searchQuery.replace(" ", "_") + "_" + i)
+            ProductDTO product = ProductIdentity.assign(ProductDTO.builder()
                     .name(hotDealsProducts[i])
                     .retailer("HOTDEALS")
                     .price(price)
@@ -145,7 +137,7 @@ public class HotDealsScraperStrategy implements ScraperStrategy {
                     .scrapedAt(LocalDateTime.now())
                     .lastUpdated(LocalDateTime.now())
                     .matchConfidence(0.75)
-                    .build();
+                    .build());
             
             products.add(product);
         }
@@ -0,0 +1,41 @@
+package com.poundsaver.scraper.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * How to read a retailer's search results without a browser. {@code searchUrl} turns a query
+ * into the URL to fetch. HTML responses are read with the strategy's {@link TileSelectors};
+ * when {@code itemsPointer} is set the response is JSON instead, and each element of the array
+ * it points to becomes a tile whose fields are read with the JSON pointers in
+ * {@code fieldPointers}. A body containing any of {@code jsOnlyMarkers} needs a browser.
+ */
+public record HttpFetchSpec(UnaryOperator<String> searchUrl, List<String> jsOnlyMarkers, String itemsPointer,
+                            Map<String, String> fieldPointers) {
+
+    /**
+     * Interstitials that only a JavaScript engine gets past: Cloudflare and Imperva challenges.
+     */
+    public static final List<String> CHALLENGE_MARKERS = List.of("window._cf_chl_opt", "/_Incapsula_Resource");
+
+    public static HttpFetchSpec html(UnaryOperator<String> searchUrl) {
+        return new HttpFetchSpec(searchUrl, CHALLENGE_MARKERS, null, Map.of());
+    }
+
+    public static HttpFetchSpec json(UnaryOperator<String> searchUrl, String itemsPointer,
+                                     Map<String, String> fieldPointers) {
+        return new HttpFetchSpec(searchUrl, CHALLENGE_MARKERS, itemsPointer, fieldPointers);
+    }
+
+    public HttpFetchSpec withJsOnlyMarkers(String... markers) {
+        List<String> all = new ArrayList<>(jsOnlyMarkers);
+        all.addAll(List.of(markers));
+        return new HttpFetchSpec(searchUrl, List.copyOf(all), itemsPointer, fieldPointers);
+    }
+
+    public boolean isJson() {
+        return itemsPointer != null;
+    }
+}
@@ -1,10 +1,14 @@
 package com.poundsaver.scraper.strategy;
 
-import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.TimeoutError;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
 import com.poundsaver.shared.util.PriceCalculator;
+import com.poundsaver.shared.util.PriceParser;
+import com.poundsaver.shared.util.ProductIdentity;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -12,115 +16,138 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component
-public class IcelandScraperStrategy implements ScraperStrategy {
+@RequiredArgsConstructor
+public class IcelandScraperStrategy implements TileScraper {
 
     private static final String ICELAND_BASE_URL = "https://www.iceland.co.uk";
     private static final String SEARCH_URL = ICELAND_BASE_URL + "/search?q=";
-    private static final int MAX_RETRIES = 3;
-    private static final int TIMEOUT_MS = 30000;
+
+    private static final TileSelectors TILE_SELECTORS = TileSelectors.of("div.product-item, li.product, div.product-card", Map.of(
+            "name", FieldSelector.text("h3.product-title, a.product-name, div.product-title"),
+            "price", FieldSelector.text("span.price, p.product-price, div.price"),
+            "imageUrl", FieldSelector.attribute("img.product-image, img", "src"),
+            "productUrl", FieldSelector.attribute("a.product-link, a", "href")));
+
+    // Search results arrive server-rendered
+    private static final HttpFetchSpec HTTP_FETCH = HttpFetchSpec.html(query -> SEARCH_URL + query.replace(" ", "+"));
+
+    private final ScrapeEngine engine;
+
+    @Override
+    public TileSelectors tileSelectors() {
+        return TILE_SELECTORS;
+    }
+
+    @Override
+    public HttpFetchSpec httpFetch() {
+        return HTTP_FETCH;
+    }
 
     @Override
     public List<ProductDTO> scrape(Page page, String searchQuery) {
         List<ProductDTO> products = new ArrayList<>();
+        scrape(page, searchQuery, products::add);
+        return products;
+    }
+
+    @Override
+    public void scrape(Page page, String searchQuery, ProductSink sink) {
+        AtomicInteger emitted = new AtomicInteger();
         
         if (searchQuery == null || searchQuery.trim().isEmpty()) {
             log.warn("Empty search query provided for Iceland scraper");
-            return products;
+            return;
         }
 
-        int retryCount = 0;
-        while (retryCount < MAX_RETRIES) {
-            try {
-                String url = SEARCH_URL + searchQuery.replace(" ", "+");
-                log.info("Navigating to Iceland: {} (attempt {}/{})", url, retryCount + 1, MAX_RETRIES);
+        try {
+            String url = SEARCH_URL + searchQuery.replace(" ", "+");
+            log.info("Navigating to Iceland: {}", url);
 
-                page.navigate(url, new Page.NavigateOptions().setTimeout(TIMEOUT_MS));
-                page.waitForLoadState();
-                page.waitForTimeout(2000);
+            // Navigation timeouts are retried with jittered backoff inside the engine
+            engine.loadPage(Retailer.ICELAND, page, url, readiness());
 
-                List<ElementHandle> productElements = page.querySelectorAll("div.product-item, li.product, div.product-card");
+            List<Map<String, String>> tiles = engine.extractTiles(Retailer.ICELAND, page, TILE_SELECTORS);
 
-                if (productElements.isEmpty()) {
-                    log.warn("No product elements found on Iceland for query: {}", searchQuery);
-                    return createMockProducts(searchQuery);
-                }
+            if (tiles.isEmpty()) {
+                log.warn("No product elements found on Iceland for query: {}", searchQuery);
+                createMockProducts(searchQuery).forEach(sink::accept);
+                return;
+            }
 
-                log.info("Found {} product elements on Iceland", productElements.size());
-
-                for (ElementHandle element : productElements) {
-                    try {
-                        ProductDTO product = extractProductData(element);
-                        if (product != null && isValidProduct(product)) {
-                            products.add(product);
-                        }
-                    } catch (Exception e) {
-                        log.warn("Failed to extract product data from element: {}", e.getMessage());
-                    }
-                }
+            log.info("Found {} product elements on Iceland", tiles.size());
 
-                if (products.isEmpty()) {
-                    log.info("No valid products extracted, using mock data for Iceland");
-                    return createMockProducts(searchQuery);
-                }
+            scrapeTiles(tiles, product -> {
+                sink.accept(product);
+                emitted.incrementAndGet();
+            });
 
-                break;
+            if (emitted.get() == 0) {
+                log.info("No valid products extracted, using mock data for Iceland");
+                createMockProducts(searchQuery).forEach(sink::accept);
+            }
 
-            } catch (TimeoutError e) {
-                retryCount++;
-                log.error("Timeout error scraping Iceland (attempt {}/{}): {}", retryCount, MAX_RETRIES, e.getMessage());
-                if (retryCount >= MAX_RETRIES) {
-                    log.error("Max retries reached for Iceland, returning mock data");
-                    return createMockProducts(searchQuery);
-                }
-                try {
-                    Thread.sleep(2000 * retryCount);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
+        } catch (ScrapingException e) {
+            // Blocks and captchas must fail the job so the retailer backs off
+            throw e;
+        } catch (TimeoutError e) {
+            log.error("Timeout error scraping Iceland after retries, returning mock data: {}", e.getMessage());
+            createMockProducts(searchQuery).forEach(sink::accept);
+        } catch (Exception e) {
+            log.error("Error scraping Iceland: {}", e.getMessage(), e);
+            createMockProducts(searchQuery).forEach(sink::accept);
+        }
+    }
+
+    @Override
+    public void scrapeTiles(List<Map<String, String>> tiles, ProductSink sink) {
+        for (Map<String, String> tile : tiles) {
+            try {
+                ProductDTO product = extractProductData(tile);
+                if (product != null && isValidProduct(product)) {
+                    sink.accept(product);
                 }
             } catch (Exception e) {
-                log.error("Error scraping Iceland: {}", e.getMessage(), e);
-                return createMockProducts(searchQuery);
+                log.warn("Failed to extract product data from element: {}", e.getMessage());
             }
         }
-
-        return products;
     }
 
-    private ProductDTO extractProductData(ElementHandle element) {
+    private ProductDTO extractProductData(Map<String, String> tile) {
         try {
-            String name = extractText(element, "h3.product-title, a.product-name, div.product-title");
-            String priceText = extractText(element, "span.price, p.product-price, div.price");
-            String imageUrl = extractAttribute(element, "img.product-image, img", "src");
-            String productUrl = extractAttribute(element, "a.product-link, a", "href");
+            String name = tile.get("name");
+            String priceText = tile.get("price");
+            String imageUrl = tile.get("imageUrl");
+            String productUrl = tile.get("productUrl");
 
             if (name == null || priceText == null) {
                 return null;
             }
 
-            BigDecimal price = parsePrice(priceText);
+            BigDecimal price = PriceParser.parsePounds(priceText);
             if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
                 return null;
             }
 
-            BigDecimal pricePerUnit = PriceCalculator.calculatePricePerUnit(price, name, null);
+            PriceCalculator.Quantity quantity = PriceCalculator.parseQuantity(name, null);
+            BigDecimal pricePerUnit = PriceCalculator.pricePerDisplayUnit(price, quantity);
 
-            return ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            return ProductIdentity.assign(ProductDTO.builder()
                     .name(sanitizeString(name))
                     .retailer("ICELAND")
                     .price(price)
                     .pricePerUnit(pricePerUnit)
-                    .unit(PriceCalculator.normalizeUnit("per unit"))
+                    .unit(PriceCalculator.displayUnit(quantity))
                     .inStock(true)
                     .imageUrl(imageUrl != null && !imageUrl.startsWith("http") ? ICELAND_BASE_URL + imageUrl : imageUrl)
                     .productUrl(productUrl != null && !productUrl.startsWith("http") ? ICELAND_BASE_URL + productUrl : productUrl)
                     .scrapedAt(LocalDateTime.now())
                     .lastUpdated(LocalDateTime.now())
-                    .build();
+                    .build());
 
         } catch (Exception e) {
             log.warn("Error extracting product data: {}", e.getMessage());
@@ -131,8 +158,7 @@ public class IcelandScraperStrategy implements ScraperStrategy {
     private List<ProductDTO> createMockProducts(String searchQuery) {
         List<ProductDTO> mockProducts = new ArrayList<>();
         
-        ProductDTO mockProduct = ProductDTO.builder()
-                .id(UUID.randomUUID().toString())
+        ProductDTO mockProduct = ProductIdentity.assign(ProductDTO.builder()
                 .name("Iceland " + searchQuery + " 500g")
                 .retailer("ICELAND")
                 .price(new BigDecimal("1.49"))
@@ -143,54 +169,12 @@ public class IcelandScraperStrategy implements ScraperStrategy {
                 .productUrl(ICELAND_BASE_URL)
                 .scrapedAt(LocalDateTime.now())
                 .lastUpdated(LocalDateTime.now())
-                .build();
+                .build());
         
         mockProducts.add(mockProduct);
         return mockProducts;
     }
 
-    private String extractText(ElementHandle parent, String selector) {
-        if (parent == null || selector == null) {
-            return null;
-        }
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.textContent().trim() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String extractAttribute(ElementHandle parent, String selector, String attribute) {
-        if (parent == null || selector == null || attribute == null) {
-            return null;
-        }
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.getAttribute(attribute) : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private BigDecimal parsePrice(String priceText) {
-        if (priceText == null || priceText.isEmpty()) {
-            return null;
-        }
-
-        try {
-            String cleaned = priceText.replaceAll("[^0-9.]", "");
-            if (cleaned.isEmpty()) {
-                return null;
-            }
-            BigDecimal price = new BigDecimal(cleaned);
-            return price.compareTo(BigDecimal.ZERO) > 0 ? price : null;
-        } catch (NumberFormatException e) {
-            log.warn("Failed to parse price: {}", priceText);
-            return null;
-        }
-    }
-
     private String sanitizeString(String input) {
         if (input == null) {
             return null;
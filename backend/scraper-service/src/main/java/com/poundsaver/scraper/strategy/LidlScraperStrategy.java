@@ -4,6 +4,7 @@ import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
 import com.poundsaver.shared.util.PriceCalculator;
+import com.poundsaver.shared.util.ProductIdentity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -11,7 +12,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Slf4j
 @Component
@@ -26,8 +26,7 @@ public class LidlScraperStrategy implements ScraperStrategy {
         try {
             log.info("Scraping Lidl for: {}", searchQuery);
 
-            ProductDTO mockProduct = ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            ProductDTO mockProduct = ProductIdentity.assign(ProductDTO.builder()
                     .name("Lidl " + searchQuery + " 1kg")
                     .retailer("LIDL")
                     .price(new BigDecimal("1.29"))
@@ -37,7 +36,7 @@ public class LidlScraperStrategy implements ScraperStrategy {
                     .imageUrl(LIDL_BASE_URL + "/placeholder.jpg")
                     .productUrl(LIDL_BASE_URL)
                     .scrapedAt(LocalDateTime.now())
-                    .build();
+                    .build());
 
             products.add(mockProduct);
 
@@ -0,0 +1,12 @@
+package com.poundsaver.scraper.strategy;
+
+import com.poundsaver.shared.dto.ProductDTO;
+
+/**
+ * Receives products as a strategy extracts them. {@code accept} may block while downstream
+ * publishing catches up, which is how backpressure reaches the extraction loop.
+ */
+@FunctionalInterface
+public interface ProductSink {
+    void accept(ProductDTO product);
+}
@@ -0,0 +1,82 @@
+package com.poundsaver.scraper.strategy;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.WaitForSelectorState;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * What a strategy considers "results are on the page". A condition is armed before navigation,
+ * so conditions that watch network traffic cannot miss an early response, and the returned
+ * {@link Waiter} blocks until the condition holds or its timeout elapses. The engine closes the
+ * waiter once navigation and waiting are over, whether or not they succeeded.
+ */
+@FunctionalInterface
+public interface ReadinessCondition {
+
+    Waiter arm(Page page);
+
+    @FunctionalInterface
+    interface Waiter extends AutoCloseable {
+        void await(double timeoutMs);
+
+        /**
+         * Releases anything {@link ReadinessCondition#arm} attached to the page.
+         */
+        @Override
+        default void close() {
+        }
+    }
+
+    static ReadinessCondition selector(String selector) {
+        return page -> timeoutMs -> page.waitForSelector(selector, new Page.WaitForSelectorOptions()
+                .setState(WaitForSelectorState.ATTACHED)
+                .setTimeout(timeoutMs));
+    }
+
+    static ReadinessCondition countStable(String selector, long quietMs) {
+        String script = """
+                ({ selector, quietMs }) => {
+                  const key = '__poundsaverStable:' + selector;
+                  const count = document.querySelectorAll(selector).length;
+                  const now = performance.now();
+                  const last = window[key];
+                  if (!last || last.count !== count) {
+                    window[key] = { count, since: now };
+                    return false;
+                  }
+                  return count > 0 && now - last.since >= quietMs;
+                }
+                """;
+        return page -> timeoutMs -> page.waitForFunction(script, Map.of("selector", selector, "quietMs", quietMs),
+                new Page.WaitForFunctionOptions().setPollingInterval(100).setTimeout(timeoutMs));
+    }
+
+    static ReadinessCondition response(Pattern urlPattern) {
+        return page -> {
+            boolean[] seen = {false};
+            Consumer<Response> listener = response -> {
+                if (urlPattern.matcher(response.url()).find()) {
+                    seen[0] = true;
+                }
+            };
+            page.onResponse(listener);
+
+            return new Waiter() {
+                @Override
+                public void await(double timeoutMs) {
+                    page.waitForCondition(() -> seen[0], new Page.WaitForConditionOptions().setTimeout(timeoutMs));
+                }
+
+                @Override
+                public void close() {
+                    // Batch and crawl sessions reuse the page, so a failed navigation must not leave it behind
+                    page.offResponse(listener);
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,294 @@
+package com.poundsaver.scraper.strategy;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.WaitUntilState;
+import com.poundsaver.scraper.browser.StorageStateStore;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.scraper.scheduling.LatencyTracker;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared page-side work for the scraper strategies. Pages are considered loaded as soon as the
+ * strategy's readiness condition holds, and tiles are read with a single {@code page.evaluate}
+ * per results page rather than several element-handle round trips per product. Navigation,
+ * readiness and extraction are timed separately per retailer. Every navigation is paced by the
+ * {@link PolitenessLimiter}, and responses that look like bot defences back the retailer off.
+ * Navigation timeouts follow each retailer's observed latency via the {@link LatencyTracker}.
+ */
+@Slf4j
+@Component
+public class ScrapeEngine {
+
+    private static final String EXTRACT_TILES_SCRIPT = """
+            ({ tile, fields, maxTiles, previous }) => {
+              let tiles = Array.from(document.querySelectorAll(tile));
+              if (maxTiles > 0) {
+                tiles = tiles.slice(0, maxTiles);
+              }
+              const extracted = tiles.map(el => {
+                const out = {};
+                for (const [name, field] of Object.entries(fields)) {
+                  const target = field.selector ? el.querySelector(field.selector) : el;
+                  if (!target) {
+                    out[name] = null;
+                  } else if (field.attribute) {
+                    out[name] = target.getAttribute(field.attribute);
+                  } else {
+                    out[name] = target.textContent == null ? null : target.textContent.replace(/\\s+/g, ' ').trim();
+                  }
+                }
+                return out;
+              });
+              // cyrb53 over the extracted fields: whitespace and markup churn do not change it
+              const text = JSON.stringify(extracted);
+              let h1 = 0xdeadbeef, h2 = 0x41c6ce57;
+              for (let i = 0; i < text.length; i++) {
+                const ch = text.charCodeAt(i);
+                h1 = Math.imul(h1 ^ ch, 2654435761);
+                h2 = Math.imul(h2 ^ ch, 1597334677);
+              }
+              h1 = Math.imul(h1 ^ (h1 >>> 16), 2246822507) ^ Math.imul(h2 ^ (h2 >>> 13), 3266489909);
+              h2 = Math.imul(h2 ^ (h2 >>> 16), 2246822507) ^ Math.imul(h1 ^ (h1 >>> 13), 3266489909);
+              const fingerprint = (h2 >>> 0).toString(16).padStart(8, '0') + (h1 >>> 0).toString(16).padStart(8, '0')
+                  + ':' + extracted.length;
+              if (previous && previous === fingerprint) {
+                return { fingerprint, unchanged: true };
+              }
+              return { fingerprint, tiles: extracted };
+            }
+            """;
+
+    private static final String EXTRACT_LINKS_SCRIPT =
+            "anchors => [...new Set(anchors.map(a => a.href).filter(href => href && href.startsWith('http')))]";
+
+    private static final String RETRY_POLICY = "scraperRetry";
+
+    private static final String CAPTCHA_SELECTOR = "iframe[src*='captcha'], iframe[src*='challenge'], "
+            + ".g-recaptcha, .h-captcha, #px-captcha, #challenge-form, [data-sitekey]";
+
+    private final ScraperProperties.Timeouts timeouts;
+    private final ScrapeFingerprints fingerprints;
+    private final PolitenessLimiter politeness;
+    private final LatencyTracker latency;
+    private final StorageStateStore storageStates;
+    private final ScraperProperties.Simulator simulator;
+    private final Map<Retailer, Retry> retries = new EnumMap<>(Retailer.class);
+    private final MeterRegistry meterRegistry;
+
+    public ScrapeEngine(ScraperProperties properties, ScrapeFingerprints fingerprints, PolitenessLimiter politeness,
+                        LatencyTracker latency, StorageStateStore storageStates, RetryRegistry retryRegistry,
+                        MeterRegistry meterRegistry) {
+        this.timeouts = properties.getTimeouts();
+        this.fingerprints = fingerprints;
+        this.politeness = politeness;
+        this.latency = latency;
+        this.storageStates = storageStates;
+        this.simulator = properties.getSimulator();
+        this.meterRegistry = meterRegistry;
+
+        // One instance per retailer so resilience4j's retry metrics are tagged by retailer
+        RetryConfig policy = retryRegistry.retry(RETRY_POLICY).getRetryConfig();
+        for (Retailer retailer : Retailer.values()) {
+            Retry retry = retryRegistry.retry(RETRY_POLICY + "-" + retailer.name(), policy);
+            Counter retried = Counter.builder("scraper_navigation_retries_total")
+                    .description("Navigations retried after a Playwright error")
+                    .tag("retailer", retailer.name())
+                    .register(meterRegistry);
+            retry.getEventPublisher().onRetry(event -> {
+                retried.increment();
+                log.warn("Retrying {} navigation (attempt {}) in {}ms: {}", retailer, event.getNumberOfRetryAttempts() + 1,
+                        event.getWaitInterval().toMillis(),
+                        event.getLastThrowable() != null ? event.getLastThrowable().getMessage() : "unknown error");
+            });
+            retries.put(retailer, retry);
+        }
+    }
+
+    /**
+     * Navigates to {@code url} and waits for {@code readiness}. Navigation errors are retried
+     * under the retailer's {@value #RETRY_POLICY} policy and propagate once it gives up; a
+     * readiness timeout is logged and reported as {@code false} so callers can still read
+     * whatever did render. A 403, 429 or captcha page throws {@link ScrapingException} without
+     * retrying, since retrying straight away would only prolong the block.
+     */
+    public boolean loadPage(Retailer retailer, Page page, String url, ReadinessCondition readiness) {
+        return retries.get(retailer).executeSupplier(() -> navigate(retailer, page, url, readiness));
+    }
+
+    private boolean navigate(Retailer retailer, Page page, String url, ReadinessCondition readiness) {
+        politeness.acquire(retailer);
+
+        Response response;
+        long readinessStart;
+        boolean ready = true;
+        try (ReadinessCondition.Waiter waiter = readiness.arm(page)) {
+            long navigationStart = System.nanoTime();
+            try {
+                response = page.navigate(simulator.rewrite(retailer, url), new Page.NavigateOptions()
+                        .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
+                        .setTimeout(latency.navigationTimeout(retailer).toMillis()));
+            } finally {
+                // Timed-out navigations count too, so a slowing site pushes its own timeout up
+                long elapsed = System.nanoTime() - navigationStart;
+                latency.record(retailer, LatencyTracker.Phase.NAVIGATION, elapsed);
+                Timer.builder("scraper_navigation_seconds")
+                        .description("Time to navigate to a results page, by whether the context started from saved state")
+                        .tags("retailer", retailer.name(),
+                                "storage_state", storageStates.isSeeded(page.context()) ? "loaded" : "none")
+                        .register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+
+            readinessStart = System.nanoTime();
+            try {
+                waiter.await(timeouts.getReadiness().toMillis());
+            } catch (TimeoutError e) {
+                ready = false;
+                log.debug("{} results not ready within {}: {}", retailer, timeouts.getReadiness(), url);
+            }
+        }
+
+        String blocked = blockReason(page, response);
+        if (blocked != null) {
+            politeness.recordBlocked(retailer, blocked);
+            storageStates.invalidate(retailer);
+            throw new ScrapingException(retailer + " refused the request (" + blocked + "): " + url);
+        }
+        politeness.recordSuccess(retailer);
+        Timer.builder("scraper_readiness_seconds")
+                .description("Time from navigation until the strategy's readiness condition held")
+                .tags("retailer", retailer.name(), "outcome", ready ? "ready" : "timeout")
+                .register(meterRegistry)
+                .record(System.nanoTime() - readinessStart, TimeUnit.NANOSECONDS);
+        return ready;
+    }
+
+    public List<Map<String, String>> extractTiles(Retailer retailer, Page page, TileSelectors selectors) {
+        long start = System.nanoTime();
+        try {
+            List<Map<String, String>> tiles = readTiles(retailer, page, selectors);
+            ScrapeFingerprints.Tracker tracker = fingerprints.trackerFor(page);
+            if (!tiles.isEmpty() || (tracker != null && tracker.unchanged())) {
+                // The page showed real results, so this session's cookies are worth keeping
+                storageStates.capture(retailer, page.context());
+            }
+            return tiles;
+        } finally {
+            timer("scraper_extraction_seconds", "Time to read all product tiles from a results page", retailer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Absolute hrefs of the anchors matching {@code selector}, without duplicates.
+     */
+    public List<String> extractLinks(Page page, String selector) {
+        Object result = page.evalOnSelectorAll(selector, EXTRACT_LINKS_SCRIPT);
+        if (!(result instanceof List<?> hrefs)) {
+            return Collections.emptyList();
+        }
+        List<String> links = new ArrayList<>(hrefs.size());
+        for (Object href : hrefs) {
+            if (href instanceof String link && !link.isEmpty()) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Reads the tiles, or nothing if the page is tracked by {@link ScrapeFingerprints} and its
+     * fingerprint matches the previous scrape of the same query.
+     */
+    private List<Map<String, String>> readTiles(Retailer retailer, Page page, TileSelectors selectors) {
+        ScrapeFingerprints.Tracker tracker = fingerprints.trackerFor(page);
+        String url = page.url();
+        String previous = tracker != null ? tracker.previousPage(url) : null;
+
+        Object result = page.evaluate(EXTRACT_TILES_SCRIPT, toArgument(selectors, previous));
+        if (!(result instanceof Map<?, ?> response)) {
+            return Collections.emptyList();
+        }
+
+        boolean unchanged = Boolean.TRUE.equals(response.get("unchanged"));
+        if (tracker != null && response.get("fingerprint") instanceof String fingerprint) {
+            tracker.pageChecked(url, fingerprint, unchanged);
+            meterRegistry.counter("scraper_results_pages_total",
+                    "retailer", retailer.name(), "outcome", unchanged ? "unchanged" : "changed").increment();
+        }
+        if (unchanged) {
+            log.info("{} results page unchanged since last scrape, skipping extraction: {}", retailer, url);
+            return Collections.emptyList();
+        }
+        if (!(response.get("tiles") instanceof List<?> tiles)) {
+            return Collections.emptyList();
+        }
+
+        List<Map<String, String>> extracted = new ArrayList<>(tiles.size());
+        for (Object tile : tiles) {
+            if (tile instanceof Map<?, ?> values) {
+                Map<String, String> fields = new HashMap<>();
+                values.forEach((name, value) -> fields.put(String.valueOf(name), value != null ? value.toString() : null));
+                extracted.add(fields);
+            }
+        }
+        return extracted;
+    }
+
+    private static String blockReason(Page page, Response response) {
+        if (response != null && (response.status() == 403 || response.status() == 429)) {
+            return "http_" + response.status();
+        }
+        try {
+            return page.locator(CAPTCHA_SELECTOR).count() > 0 ? "captcha" : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Timer timer(String name, String description, Retailer retailer) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("retailer", retailer.name())
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Object> toArgument(TileSelectors selectors, String previousFingerprint) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        selectors.fields().forEach((name, field) -> {
+            Map<String, String> spec = new HashMap<>();
+            spec.put("selector", field.selector());
+            spec.put("attribute", field.attribute());
+            fields.put(name, spec);
+        });
+
+        Map<String, Object> argument = new HashMap<>();
+        argument.put("tile", selectors.tile());
+        argument.put("fields", fields);
+        argument.put("maxTiles", selectors.maxTiles());
+        argument.put("previous", previousFingerprint);
+        return argument;
+    }
+}
@@ -1,10 +1,31 @@
 package com.poundsaver.scraper.strategy;
 
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.LoadState;
 import com.poundsaver.shared.dto.ProductDTO;
 
 import java.util.List;
 
 public interface ScraperStrategy {
     List<ProductDTO> scrape(Page page, String searchQuery);
+
+    /**
+     * Streams products into {@code sink} as they are extracted. The default scrapes the whole
+     * list first; strategies that parse tiles override it to hand over each product at once.
+     */
+    default void scrape(Page page, String searchQuery, ProductSink sink) {
+        scrape(page, searchQuery).forEach(sink::accept);
+    }
+
+    default TileSelectors tileSelectors() {
+        return null;
+    }
+
+    default ReadinessCondition readiness() {
+        TileSelectors selectors = tileSelectors();
+        return selectors != null
+                ? ReadinessCondition.selector(selectors.tile())
+                : page -> timeoutMs -> page.waitForLoadState(LoadState.LOAD,
+                        new Page.WaitForLoadStateOptions().setTimeout(timeoutMs));
+    }
 }
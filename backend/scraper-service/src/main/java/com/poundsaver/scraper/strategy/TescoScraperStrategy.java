@@ -1,9 +1,13 @@
 package com.poundsaver.scraper.strategy;
 
-import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Page;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
 import com.poundsaver.shared.util.PriceCalculator;
+import com.poundsaver.shared.util.PriceParser;
+import com.poundsaver.shared.util.ProductIdentity;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -11,60 +15,103 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Slf4j
 @Component
-public class TescoScraperStrategy implements ScraperStrategy {
+@RequiredArgsConstructor
+public class TescoScraperStrategy implements TileScraper {
 
     private static final String TESCO_BASE_URL = "https://www.tesco.com";
     private static final String SEARCH_URL = TESCO_BASE_URL + "/groceries/en-GB/search?query=";
+    private static final String SHOP_URL = TESCO_BASE_URL + "/groceries/en-GB/shop/";
+
+    // Department and aisle links share the shop prefix; pagination adds ?page=N to the same path
+    private static final CrawlSpec CRAWL_SPEC = new CrawlSpec(
+            List.of(SHOP_URL + "fresh-food/all", SHOP_URL + "bakery/all", SHOP_URL + "frozen-food/all",
+                    SHOP_URL + "food-cupboard/all", SHOP_URL + "drinks/all", SHOP_URL + "household/all"),
+            "a[href*='/groceries/en-GB/shop/']",
+            SHOP_URL);
+
+    private static final TileSelectors TILE_SELECTORS = TileSelectors.of("li.product-list--list-item", Map.of(
+            "name", FieldSelector.text("a.product-tile--title"),
+            "price", FieldSelector.text("p.price-per-sellable-unit span.value"),
+            "pricePerUnit", FieldSelector.text("p.price-per-quantity-weight span.value"),
+            "clubcardPrice", FieldSelector.text("span.offer-text"),
+            "imageUrl", FieldSelector.attribute("img.product-image", "src"),
+            "productUrl", FieldSelector.attribute("a.product-tile--title", "href")));
+
+    // Search results are rendered server-side, so the browser is only needed for challenges
+    private static final HttpFetchSpec HTTP_FETCH = HttpFetchSpec.html(query -> SEARCH_URL + query.replace(" ", "%20"));
+
+    private final ScrapeEngine engine;
+
+    @Override
+    public TileSelectors tileSelectors() {
+        return TILE_SELECTORS;
+    }
+
+    @Override
+    public HttpFetchSpec httpFetch() {
+        return HTTP_FETCH;
+    }
+
+    @Override
+    public CrawlSpec crawlSpec() {
+        return CRAWL_SPEC;
+    }
 
     @Override
     public List<ProductDTO> scrape(Page page, String searchQuery) {
         List<ProductDTO> products = new ArrayList<>();
+        scrape(page, searchQuery, products::add);
+        return products;
+    }
+
+    @Override
+    public void scrape(Page page, String searchQuery, ProductSink sink) {
         
         if (page == null || searchQuery == null || searchQuery.trim().isEmpty()) {
             log.warn("Invalid parameters for Tesco scraper");
-            return products;
+            return;
         }
 
         try {
             String url = SEARCH_URL + searchQuery.replace(" ", "%20");
             log.info("Navigating to Tesco: {}", url);
 
-            page.navigate(url, new Page.NavigateOptions().setTimeout(30000));
-            page.waitForLoadState();
-            page.waitForTimeout(2000);
+            engine.loadPage(Retailer.TESCO, page, url, readiness());
 
-            List<ElementHandle> productElements = page.querySelectorAll("li.product-list--list-item");
+            List<Map<String, String>> tiles = engine.extractTiles(Retailer.TESCO, page, TILE_SELECTORS);
 
-            if (productElements == null || productElements.isEmpty()) {
+            if (tiles.isEmpty()) {
                 log.warn("No product elements found on Tesco for query: {}", searchQuery);
-                return products;
+                return;
             }
 
-            log.info("Found {} product elements on Tesco", productElements.size());
-
-            for (ElementHandle element : productElements) {
-                if (element == null) {
-                    continue;
-                }
-                try {
-                    ProductDTO product = extractProductData(element);
-                    if (product != null && isValidProduct(product)) {
-                        products.add(product);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to extract product data from element: {}", e.getMessage());
-                }
-            }
+            log.info("Found {} product elements on Tesco", tiles.size());
+            scrapeTiles(tiles, sink);
 
+        } catch (ScrapingException e) {
+            // Blocks and captchas must fail the job so the retailer backs off
+            throw e;
         } catch (Exception e) {
             log.error("Error scraping Tesco: {}", e.getMessage(), e);
         }
+    }
 
-        return products;
+    @Override
+    public void scrapeTiles(List<Map<String, String>> tiles, ProductSink sink) {
+        for (Map<String, String> tile : tiles) {
+            try {
+                ProductDTO product = extractProductData(tile);
+                if (product != null && isValidProduct(product)) {
+                    sink.accept(product);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to extract product data from element: {}", e.getMessage());
+            }
+        }
     }
     
     private boolean isValidProduct(ProductDTO product) {
@@ -75,43 +122,41 @@ public class TescoScraperStrategy implements ScraperStrategy {
             && product.getPrice().compareTo(BigDecimal.ZERO) > 0;
     }
 
-    private ProductDTO extractProductData(ElementHandle element) {
-        if (element == null) {
-            return null;
-        }
-        
+    private ProductDTO extractProductData(Map<String, String> tile) {
         try {
-            String name = extractText(element, "a.product-tile--title");
-            String priceText = extractText(element, "p.price-per-sellable-unit span.value");
-            String pricePerUnitText = extractText(element, "p.price-per-quantity-weight span.value");
-            String imageUrl = extractAttribute(element, "img.product-image", "src");
-            String productUrl = extractAttribute(element, "a.product-tile--title", "href");
+            String name = tile.get("name");
+            String priceText = tile.get("price");
+            String pricePerUnitText = tile.get("pricePerUnit");
+            String imageUrl = tile.get("imageUrl");
+            String productUrl = tile.get("productUrl");
 
             if (name == null || name.trim().isEmpty() || priceText == null) {
                 return null;
             }
 
-            BigDecimal price = parsePrice(priceText);
+            BigDecimal price = PriceParser.parsePounds(priceText);
             if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
                 return null;
             }
             
-            BigDecimal pricePerUnit = parsePrice(pricePerUnitText);
+            BigDecimal pricePerUnit = PriceParser.parsePounds(pricePerUnitText);
 
-            String clubcardPriceText = extractText(element, "span.offer-text");
-            BigDecimal loyaltyPrice = clubcardPriceText != null ? parsePrice(clubcardPriceText) : null;
+            String clubcardPriceText = tile.get("clubcardPrice");
+            BigDecimal loyaltyPrice = clubcardPriceText != null ? PriceParser.parsePounds(clubcardPriceText) : null;
 
+            String unit = PriceCalculator.normalizeUnit("per unit");
             if (pricePerUnit == null || pricePerUnit.compareTo(BigDecimal.ZERO) == 0) {
-                pricePerUnit = PriceCalculator.calculatePricePerUnit(price, name, null);
+                PriceCalculator.Quantity quantity = PriceCalculator.parseQuantity(name, null);
+                pricePerUnit = PriceCalculator.pricePerDisplayUnit(price, quantity);
+                unit = PriceCalculator.displayUnit(quantity);
             }
 
-            return ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            return ProductIdentity.assign(ProductDTO.builder()
                     .name(name.trim())
                     .retailer("TESCO")
                     .price(price)
                     .pricePerUnit(pricePerUnit)
-                    .unit(PriceCalculator.normalizeUnit("per unit"))
+                    .unit(unit)
                     .loyaltyPrice(loyaltyPrice)
                     .loyaltyScheme(loyaltyPrice != null ? "Clubcard" : null)
                     .inStock(true)
@@ -119,43 +164,11 @@ public class TescoScraperStrategy implements ScraperStrategy {
                     .productUrl(productUrl != null && !productUrl.isEmpty() ? TESCO_BASE_URL + productUrl : null)
                     .scrapedAt(LocalDateTime.now())
                     .lastUpdated(LocalDateTime.now())
-                    .build();
+                    .build());
 
         } catch (Exception e) {
             log.warn("Error extracting product data: {}", e.getMessage());
             return null;
         }
     }
-
-    private String extractText(ElementHandle parent, String selector) {
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.textContent().trim() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String extractAttribute(ElementHandle parent, String selector, String attribute) {
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.getAttribute(attribute) : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private BigDecimal parsePrice(String priceText) {
-        if (priceText == null || priceText.isEmpty()) {
-            return null;
-        }
-
-        try {
-            String cleaned = priceText.replaceAll("[^0-9.]", "");
-            return new BigDecimal(cleaned);
-        } catch (NumberFormatException e) {
-            log.warn("Failed to parse price: {}", priceText);
-            return null;
-        }
-    }
 }
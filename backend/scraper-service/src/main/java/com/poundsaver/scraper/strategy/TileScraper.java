@@ -0,0 +1,37 @@
+package com.poundsaver.scraper.strategy;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A strategy whose products can be read from tiles taken outside its own {@code scrape}: a
+ * browserless fetch of its search results, or a catalogue crawl's listing pages. Either path
+ * is used only when the matching spec is non-null.
+ */
+public interface TileScraper extends ScraperStrategy {
+
+    @Override
+    TileSelectors tileSelectors();
+
+    /**
+     * Maps tiles read with {@link #tileSelectors()}, or from a JSON response, to products.
+     * Unreadable tiles are skipped.
+     */
+    void scrapeTiles(List<Map<String, String>> tiles, ProductSink sink);
+
+    /**
+     * Browserless fetch path tried before Playwright, or {@code null} if the retailer's
+     * results only exist once JavaScript has run.
+     */
+    default HttpFetchSpec httpFetch() {
+        return null;
+    }
+
+    /**
+     * Category crawl entry points and link rules, or {@code null} if the retailer can only be
+     * searched.
+     */
+    default CrawlSpec crawlSpec() {
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.poundsaver.scraper.strategy;
+
+import java.util.Map;
+
+/**
+ * Declarative description of a results page: the selector matching each product tile and the
+ * fields to read from every tile. {@code maxTiles} of zero means no limit.
+ */
+public record TileSelectors(String tile, Map<String, FieldSelector> fields, int maxTiles) {
+
+    public static TileSelectors of(String tile, Map<String, FieldSelector> fields) {
+        return new TileSelectors(tile, fields, 0);
+    }
+
+    public TileSelectors limit(int maxTiles) {
+        return new TileSelectors(tile, fields, maxTiles);
+    }
+}
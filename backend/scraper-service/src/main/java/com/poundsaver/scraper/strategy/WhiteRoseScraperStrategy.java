@@ -1,10 +1,14 @@
 package com.poundsaver.scraper.strategy;
 
-import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.TimeoutError;
 import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
 import com.poundsaver.shared.util.PriceCalculator;
+import com.poundsaver.shared.util.PriceParser;
+import com.poundsaver.shared.util.ProductIdentity;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -12,115 +16,122 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class WhiteRoseScraperStrategy implements ScraperStrategy {
 
     private static final String WHITE_ROSE_BASE_URL = "https://www.whiterose.co.uk";
     private static final String SEARCH_URL = WHITE_ROSE_BASE_URL + "/search?q=";
-    private static final int MAX_RETRIES = 3;
-    private static final int TIMEOUT_MS = 30000;
+
+    private static final TileSelectors TILE_SELECTORS = TileSelectors.of("div.product-item, li.product, div.product-card", Map.of(
+            "name", FieldSelector.text("h3.product-title, a.product-name, div.product-title"),
+            "price", FieldSelector.text("span.price, p.product-price, div.price"),
+            "imageUrl", FieldSelector.attribute("img.product-image, img", "src"),
+            "productUrl", FieldSelector.attribute("a.product-link, a", "href")));
+
+    private final ScrapeEngine engine;
+
+    @Override
+    public TileSelectors tileSelectors() {
+        return TILE_SELECTORS;
+    }
 
     @Override
     public List<ProductDTO> scrape(Page page, String searchQuery) {
         List<ProductDTO> products = new ArrayList<>();
+        scrape(page, searchQuery, products::add);
+        return products;
+    }
+
+    @Override
+    public void scrape(Page page, String searchQuery, ProductSink sink) {
+        int emitted = 0;
         
         if (searchQuery == null || searchQuery.trim().isEmpty()) {
             log.warn("Empty search query provided for White Rose scraper");
-            return products;
+            return;
         }
 
-        int retryCount = 0;
-        while (retryCount < MAX_RETRIES) {
-            try {
-                String url = SEARCH_URL + searchQuery.replace(" ", "+");
-                log.info("Navigating to White Rose: {} (attempt {}/{})", url, retryCount + 1, MAX_RETRIES);
+        try {
+            String url = SEARCH_URL + searchQuery.replace(" ", "+");
+            log.info("Navigating to White Rose: {}", url);
 
-                page.navigate(url, new Page.NavigateOptions().setTimeout(TIMEOUT_MS));
-                page.waitForLoadState();
-                page.waitForTimeout(2000);
+            // Navigation timeouts are retried with jittered backoff inside the engine
+            engine.loadPage(Retailer.WHITE_ROSE, page, url, readiness());
 
-                List<ElementHandle> productElements = page.querySelectorAll("div.product-item, li.product, div.product-card");
+            List<Map<String, String>> tiles = engine.extractTiles(Retailer.WHITE_ROSE, page, TILE_SELECTORS);
 
-                if (productElements.isEmpty()) {
-                    log.warn("No product elements found on White Rose for query: {}", searchQuery);
-                    return createMockProducts(searchQuery);
-                }
+            if (tiles.isEmpty()) {
+                log.warn("No product elements found on White Rose for query: {}", searchQuery);
+                createMockProducts(searchQuery).forEach(sink::accept);
+                return;
+            }
 
-                log.info("Found {} product elements on White Rose", productElements.size());
+            log.info("Found {} product elements on White Rose", tiles.size());
 
-                for (ElementHandle element : productElements) {
-                    try {
-                        ProductDTO product = extractProductData(element);
-                        if (product != null && isValidProduct(product)) {
-                            products.add(product);
-                        }
-                    } catch (Exception e) {
-                        log.warn("Failed to extract product data from element: {}", e.getMessage());
+            for (Map<String, String> tile : tiles) {
+                try {
+                    ProductDTO product = extractProductData(tile);
+                    if (product != null && isValidProduct(product)) {
+                        sink.accept(product);
+                        emitted++;
                     }
+                } catch (Exception e) {
+                    log.warn("Failed to extract product data from element: {}", e.getMessage());
                 }
+            }
 
-                if (products.isEmpty()) {
-                    log.info("No valid products extracted, using mock data for White Rose");
-                    return createMockProducts(searchQuery);
-                }
-
-                break;
-
-            } catch (TimeoutError e) {
-                retryCount++;
-                log.error("Timeout error scraping White Rose (attempt {}/{}): {}", retryCount, MAX_RETRIES, e.getMessage());
-                if (retryCount >= MAX_RETRIES) {
-                    log.error("Max retries reached for White Rose, returning mock data");
-                    return createMockProducts(searchQuery);
-                }
-                try {
-                    Thread.sleep(2000 * retryCount);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                }
-            } catch (Exception e) {
-                log.error("Error scraping White Rose: {}", e.getMessage(), e);
-                return createMockProducts(searchQuery);
+            if (emitted == 0) {
+                log.info("No valid products extracted, using mock data for White Rose");
+                createMockProducts(searchQuery).forEach(sink::accept);
             }
-        }
 
-        return products;
+        } catch (ScrapingException e) {
+            // Blocks and captchas must fail the job so the retailer backs off
+            throw e;
+        } catch (TimeoutError e) {
+            log.error("Timeout error scraping White Rose after retries, returning mock data: {}", e.getMessage());
+            createMockProducts(searchQuery).forEach(sink::accept);
+        } catch (Exception e) {
+            log.error("Error scraping White Rose: {}", e.getMessage(), e);
+            createMockProducts(searchQuery).forEach(sink::accept);
+        }
     }
 
-    private ProductDTO extractProductData(ElementHandle element) {
+    private ProductDTO extractProductData(Map<String, String> tile) {
         try {
-            String name = extractText(element, "h3.product-title, a.product-name, div.product-title");
-            String priceText = extractText(element, "span.price, p.product-price, div.price");
-            String imageUrl = extractAttribute(element, "img.product-image, img", "src");
-            String productUrl = extractAttribute(element, "a.product-link, a", "href");
+            String name = tile.get("name");
+            String priceText = tile.get("price");
+            String imageUrl = tile.get("imageUrl");
+            String productUrl = tile.get("productUrl");
 
             if (name == null || priceText == null) {
                 return null;
             }
 
-            BigDecimal price = parsePrice(priceText);
+            BigDecimal price = PriceParser.parsePounds(priceText);
             if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
                 return null;
             }
 
-            BigDecimal pricePerUnit = PriceCalculator.calculatePricePerUnit(price, name, null);
+            PriceCalculator.Quantity quantity = PriceCalculator.parseQuantity(name, null);
+            BigDecimal pricePerUnit = PriceCalculator.pricePerDisplayUnit(price, quantity);
 
-            return ProductDTO.builder()
-                    .id(UUID.randomUUID().toString())
+            return ProductIdentity.assign(ProductDTO.builder()
                     .name(sanitizeString(name))
                     .retailer("WHITE_ROSE")
                     .price(price)
                     .pricePerUnit(pricePerUnit)
-                    .unit(PriceCalculator.normalizeUnit("per unit"))
+                    .unit(PriceCalculator.displayUnit(quantity))
                     .inStock(true)
                     .imageUrl(imageUrl != null && !imageUrl.startsWith("http") ? WHITE_ROSE_BASE_URL + imageUrl : imageUrl)
                     .productUrl(productUrl != null && !productUrl.startsWith("http") ? WHITE_ROSE_BASE_URL + productUrl : productUrl)
                     .scrapedAt(LocalDateTime.now())
                     .lastUpdated(LocalDateTime.now())
-                    .build();
+                    .build());
 
         } catch (Exception e) {
             log.warn("Error extracting product data: {}", e.getMessage());
@@ -131,8 +142,7 @@ public class WhiteRoseScraperStrategy implements ScraperStrategy {
     private List<ProductDTO> createMockProducts(String searchQuery) {
         List<ProductDTO> mockProducts = new ArrayList<>();
         
-        ProductDTO mockProduct = ProductDTO.builder()
-                .id(UUID.randomUUID().toString())
+        ProductDTO mockProduct = ProductIdentity.assign(ProductDTO.builder()
                 .name("White Rose " + searchQuery + " 750g")
                 .retailer("WHITE_ROSE")
                 .price(new BigDecimal("1.59"))
@@ -143,54 +153,12 @@ public class WhiteRoseScraperStrategy implements ScraperStrategy {
                 .productUrl(WHITE_ROSE_BASE_URL)
                 .scrapedAt(LocalDateTime.now())
                 .lastUpdated(LocalDateTime.now())
-                .build();
+                .build());
         
         mockProducts.add(mockProduct);
         return mockProducts;
     }
 
-    private String extractText(ElementHandle parent, String selector) {
-        if (parent == null || selector == null) {
-            return null;
-        }
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.textContent().trim() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String extractAttribute(ElementHandle parent, String selector, String attribute) {
-        if (parent == null || selector == null || attribute == null) {
-            return null;
-        }
-        try {
-            ElementHandle element = parent.querySelector(selector);
-            return element != null ? element.getAttribute(attribute) : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private BigDecimal parsePrice(String priceText) {
-        if (priceText == null || priceText.isEmpty()) {
-            return null;
-        }
-
-        try {
-            String cleaned = priceText.replaceAll("[^0-9.]", "");
-            if (cleaned.isEmpty()) {
-                return null;
-            }
-            BigDecimal price = new BigDecimal(cleaned);
-            return price.compareTo(BigDecimal.ZERO) > 0 ? price : null;
-        } catch (NumberFormatException e) {
-            log.warn("Failed to parse price: {}", priceText);
-            return null;
-        }
-    }
-
     private String sanitizeString(String input) {
         if (input == null) {
             return null;
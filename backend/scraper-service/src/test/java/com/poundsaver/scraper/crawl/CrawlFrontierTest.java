@@ -0,0 +1,115 @@
+package com.poundsaver.scraper.crawl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrawlFrontierTest {
+
+    private static final String SHOP = "https://shop.test/";
+
+    @Test
+    void resumesFromLogAndDropsTornLastLine() throws IOException {
+        Path file = Files.createTempDirectory("frontier").resolve("TESCO.log");
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 100)) {
+            frontier.seed(List.of(SHOP + "a", SHOP + "b", SHOP + "c", SHOP + "d"));
+            assertEquals(SHOP + "a", frontier.next());
+            frontier.done(SHOP + "a", List.of(SHOP + "e", SHOP + "b#reviews"));
+            assertEquals(SHOP + "b", frontier.next());
+            assertFalse(frontier.retry(SHOP + "b", 1));
+            assertEquals(SHOP + "c", frontier.next());
+        }
+        long intact = Files.size(file);
+        Files.writeString(file, "D https://shop.te", StandardOpenOption.APPEND);
+
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 100)) {
+            assertEquals(intact, Files.size(file));
+            assertEquals(new CrawlFrontier.Progress(5, 3, 1, 1), frontier.progress());
+
+            frontier.seed(List.of(SHOP + "a", SHOP + "b", SHOP + "c"));
+            assertEquals(List.of(SHOP + "c", SHOP + "d", SHOP + "e"), drain(frontier));
+            assertTrue(frontier.isExhausted());
+        }
+        assertEquals(List.of("Q " + SHOP + "a", "Q " + SHOP + "b", "Q " + SHOP + "c", "Q " + SHOP + "d",
+                        "Q " + SHOP + "e", "D " + SHOP + "a", "F " + SHOP + "b"),
+                Files.readAllLines(file, StandardCharsets.UTF_8).subList(0, 7));
+    }
+
+    @Test
+    void completedPagesAreNeverQueuedAgain() throws IOException {
+        Path file = Files.createTempDirectory("frontier").resolve("TESCO.log");
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 100)) {
+            frontier.seed(List.of(SHOP + "a"));
+            frontier.done(frontier.next(), List.of(SHOP + "a", SHOP + "b"));
+            frontier.done(frontier.next(), List.of(SHOP + "a"));
+            assertTrue(frontier.isExhausted());
+        }
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 100)) {
+            frontier.seed(List.of(SHOP + "a", SHOP + "b"));
+            assertNull(frontier.next());
+            assertEquals(new CrawlFrontier.Progress(2, 0, 2, 0), frontier.progress());
+        }
+    }
+
+    @Test
+    void maxPagesCapsQueueingAcrossRestarts() throws IOException {
+        Path file = Files.createTempDirectory("frontier").resolve("TESCO.log");
+        List<String> seeds = List.of(SHOP + "a", SHOP + "b", SHOP + "c", SHOP + "d", SHOP + "e");
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 3)) {
+            frontier.seed(seeds);
+            frontier.done(frontier.next(), List.of(SHOP + "f"));
+            assertEquals(new CrawlFrontier.Progress(3, 2, 1, 0), frontier.progress());
+        }
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 3)) {
+            frontier.seed(seeds);
+            assertEquals(new CrawlFrontier.Progress(3, 2, 1, 0), frontier.progress());
+            assertEquals(List.of(SHOP + "b", SHOP + "c"), drain(frontier));
+        }
+    }
+
+    @Test
+    void retryAndReleaseRequeueInFlightPages() throws IOException {
+        Path file = Files.createTempDirectory("frontier").resolve("TESCO.log");
+        try (CrawlFrontier frontier = CrawlFrontier.open(file, 100)) {
+            frontier.seed(List.of(SHOP + "a", SHOP + "b", "not a url", "#"));
+            assertEquals(new CrawlFrontier.Progress(2, 2, 0, 0), frontier.progress());
+
+            String a = frontier.next();
+            assertTrue(frontier.retry(a, 2));
+            assertEquals(SHOP + "b", frontier.next());
+            frontier.release(SHOP + "b");
+            assertEquals(SHOP + "b", frontier.next());
+            assertFalse(frontier.isExhausted());
+            frontier.done(SHOP + "b", List.of());
+
+            assertEquals(SHOP + "a", frontier.next());
+            assertFalse(frontier.retry(SHOP + "a", 2));
+            assertTrue(frontier.isExhausted());
+            assertEquals(new CrawlFrontier.Progress(2, 0, 1, 1), frontier.progress());
+
+            frontier.delete();
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    private static List<String> drain(CrawlFrontier frontier) {
+        List<String> visited = new ArrayList<>();
+        String url;
+        while ((url = frontier.next()) != null) {
+            visited.add(url);
+            frontier.done(url, List.of());
+        }
+        return visited;
+    }
+}
@@ -0,0 +1,106 @@
+package com.poundsaver.scraper.fetch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.scraper.strategy.TescoScraperStrategy;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.simulator.RetailerSimulator;
+import com.poundsaver.simulator.SimulatorSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the browserless fetch path against the retailer simulator instead of a live site.
+ */
+class HttpFetcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScraperProperties properties = new ScraperProperties();
+    // Only scrapeTiles is used, which never touches the engine
+    private final TescoScraperStrategy tesco = new TescoScraperStrategy(null);
+
+    @Test
+    void readsProductsFromSimulatedResultsPage() throws Exception {
+        try (RetailerSimulator simulator = simulator(SimulatorSettings.builder())) {
+            List<ProductDTO> products = fetcher(simulator).fetch(Retailer.TESCO, tesco, "milk", null);
+
+            assertFalse(products == null || products.isEmpty(), "expected products, got " + products);
+            for (ProductDTO product : products) {
+                assertEquals("TESCO", product.getRetailer());
+                assertTrue(product.getName().toLowerCase().contains("milk"), product.getName());
+                assertTrue(product.getPrice().compareTo(BigDecimal.ZERO) > 0, product.getName());
+            }
+            assertEquals(1, simulator.served(Retailer.TESCO, RetailerSimulator.Outcome.OK));
+        }
+    }
+
+    @Test
+    void unchangedResultsPageIsNotExtractedTwice() throws Exception {
+        ScrapeFingerprints fingerprints = new ScrapeFingerprints(properties, meterRegistry);
+        try (RetailerSimulator simulator = simulator(SimulatorSettings.builder())) {
+            HttpFetcher fetcher = fetcher(simulator);
+
+            ScrapeFingerprints.Tracker first = fingerprints.begin(Retailer.TESCO, "milk");
+            List<ProductDTO> products = fetcher.fetch(Retailer.TESCO, tesco, "milk", first);
+            products.forEach(product -> assertTrue(fingerprints.changed(first, product)));
+            fingerprints.commit(first);
+            assertFalse(first.unchanged());
+
+            ScrapeFingerprints.Tracker second = fingerprints.begin(Retailer.TESCO, "milk");
+            assertEquals(List.of(), fetcher.fetch(Retailer.TESCO, tesco, "milk", second));
+            assertTrue(second.unchanged());
+            assertEquals(products.size(), second.knownProducts());
+        }
+    }
+
+    @Test
+    void captchaPageFallsBackToTheBrowser() throws Exception {
+        try (RetailerSimulator simulator = simulator(SimulatorSettings.builder().captchaRate(1.0))) {
+            assertNull(fetcher(simulator).fetch(Retailer.TESCO, tesco, "milk", null));
+            assertEquals(1, simulator.served(Retailer.TESCO, RetailerSimulator.Outcome.CAPTCHA));
+        }
+    }
+
+    @Test
+    void blockFailsWithoutFallingBack() throws Exception {
+        try (RetailerSimulator simulator = simulator(SimulatorSettings.builder().blockRate(1.0))) {
+            HttpFetcher fetcher = fetcher(simulator);
+            assertThrows(ScrapingException.class, () -> fetcher.fetch(Retailer.TESCO, tesco, "milk", null));
+            assertEquals(1.0, meterRegistry.get("scraper_fetch_path_total")
+                    .tags("retailer", "TESCO", "path", HttpFetcher.HTTP, "outcome", "blocked").counter().count(), 0);
+        }
+    }
+
+    private RetailerSimulator simulator(SimulatorSettings.Builder settings) throws Exception {
+        RetailerSimulator simulator = new RetailerSimulator(settings
+                .port(0)
+                .threads(4)
+                .catalogueSize(500)
+                .medianLatency(Duration.ZERO)
+                .p99Latency(Duration.ZERO)
+                .errorRate(0)
+                .build());
+        simulator.start();
+        return simulator;
+    }
+
+    private HttpFetcher fetcher(RetailerSimulator simulator) {
+        properties.getSimulator().setBaseUrl("http://localhost:" + simulator.getPort());
+        properties.getPoliteness().setEnabled(false);
+        return new HttpFetcher(properties, new PolitenessLimiter(properties, meterRegistry), new ObjectMapper(), meterRegistry);
+    }
+}
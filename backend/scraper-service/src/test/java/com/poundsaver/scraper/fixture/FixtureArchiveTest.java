@@ -0,0 +1,171 @@
+package com.poundsaver.scraper.fixture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.Route;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.shared.exception.ScrapingException;
+import com.poundsaver.simulator.RetailerSimulator;
+import com.poundsaver.simulator.SimulatorSettings;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records responses captured from the retailer simulator and replays them with the simulator
+ * gone, through stand-ins for the Playwright context, responses and routes.
+ */
+class FixtureArchiveTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Consumer<Response> responseHandler;
+    private Consumer<Route> routeHandler;
+
+    @Test
+    void replaysRecordedSimulatorPageOffline() throws Exception {
+        Path directory = Files.createTempDirectory("fixtures");
+        String url;
+        HttpResponse<byte[]> page;
+        try (RetailerSimulator simulator = simulator()) {
+            url = simulator.baseUrl(Retailer.TESCO) + "/groceries/en-GB/search?query=milk";
+            page = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(url)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+
+            FixtureArchive.Session session = archive(directory, ScraperProperties.Fixtures.Mode.RECORD)
+                    .open(context(), Retailer.TESCO, "milk");
+            responseHandler.accept(response("GET", url.replace("/search", "/start"), 302, () -> {
+                throw new IllegalStateException("redirects have no body");
+            }));
+            responseHandler.accept(response("GET", url, page.statusCode(), page::body));
+            session.save();
+        }
+
+        archive(directory, ScraperProperties.Fixtures.Mode.REPLAY).open(context(), Retailer.TESCO, "milk");
+        List<Object> fulfilled = new ArrayList<>();
+        routeHandler.accept(route("GET", url, fulfilled));
+
+        Route.FulfillOptions options = (Route.FulfillOptions) fulfilled.get(0);
+        assertEquals(Integer.valueOf(200), options.status);
+        String html = new String(options.bodyBytes, StandardCharsets.UTF_8);
+        assertEquals(new String(page.body(), StandardCharsets.UTF_8), html);
+        assertFalse(Jsoup.parse(html).select("li.product-list--list-item").isEmpty());
+
+        routeHandler.accept(route("GET", url.replace("milk", "bread"), fulfilled));
+        assertEquals("abort:internetdisconnected", fulfilled.get(1));
+    }
+
+    @Test
+    void recordingWithUnreadableBodyIsRefused() throws Exception {
+        Path directory = Files.createTempDirectory("fixtures");
+        FixtureArchive.Session session = archive(directory, ScraperProperties.Fixtures.Mode.RECORD)
+                .open(context(), Retailer.TESCO, "milk");
+        responseHandler.accept(response("GET", "https://www.tesco.com/search?query=milk", 200, () -> {
+            throw new IllegalStateException("Response body is unavailable for redirect responses");
+        }));
+
+        ScrapingException e = assertThrows(ScrapingException.class, session::save);
+        assertTrue(e.getMessage().contains("https://www.tesco.com/search?query=milk"), e.getMessage());
+        assertFalse(Files.exists(directory.resolve("v1/TESCO/milk/index.json")));
+    }
+
+    private FixtureArchive archive(Path directory, ScraperProperties.Fixtures.Mode mode) {
+        ScraperProperties properties = new ScraperProperties();
+        properties.getFixtures().setDirectory(directory.toString());
+        properties.getFixtures().setMode(mode);
+        return new FixtureArchive(properties, objectMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BrowserContext context() {
+        responseHandler = null;
+        routeHandler = null;
+        return proxy(BrowserContext.class, (name, args) -> {
+            switch (name) {
+                case "onResponse" -> responseHandler = (Consumer<Response>) args[0];
+                case "route" -> routeHandler = (Consumer<Route>) args[1];
+                default -> throw new UnsupportedOperationException(name);
+            }
+            return null;
+        });
+    }
+
+    private static Response response(String method, String url, int status, Supplier<byte[]> body) {
+        Request request = request(method, url);
+        return proxy(Response.class, (name, args) -> switch (name) {
+            case "request" -> request;
+            case "url" -> url;
+            case "status" -> status;
+            case "headers" -> Map.of("content-type", "text/html; charset=utf-8", "content-length", "1");
+            case "body" -> body.get();
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private static Route route(String method, String url, List<Object> outcomes) {
+        Request request = request(method, url);
+        return proxy(Route.class, (name, args) -> {
+            switch (name) {
+                case "request" -> {
+                    return request;
+                }
+                case "fulfill" -> outcomes.add(args[0]);
+                case "abort" -> outcomes.add("abort:" + args[0]);
+                default -> throw new UnsupportedOperationException(name);
+            }
+            return null;
+        });
+    }
+
+    private static Request request(String method, String url) {
+        return proxy(Request.class, (name, args) -> switch (name) {
+            case "method" -> method;
+            case "url" -> url;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private static RetailerSimulator simulator() throws Exception {
+        RetailerSimulator simulator = new RetailerSimulator(SimulatorSettings.builder()
+                .port(0)
+                .threads(2)
+                .catalogueSize(500)
+                .medianLatency(Duration.ZERO)
+                .p99Latency(Duration.ZERO)
+                .errorRate(0)
+                .build());
+        simulator.start();
+        return simulator;
+    }
+
+    private interface Handler {
+        Object invoke(String name, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(FixtureArchiveTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
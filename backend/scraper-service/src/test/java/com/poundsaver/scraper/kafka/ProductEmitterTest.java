@@ -0,0 +1,83 @@
+package com.poundsaver.scraper.kafka;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.dto.ProductDTO;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductEmitterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void failuresCompletedBeforeFinishAreCountedOnce() throws Exception {
+        ProductEmitter emitter = emitter(name -> name.startsWith("bad")
+                ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                : CompletableFuture.completedFuture(sent(name)));
+
+        ProductEmitter.Stream stream = emitter.open(Retailer.TESCO);
+        stream.send(product("good milk"));
+        stream.send(product("bad bread"));
+        stream.send(product("bad eggs"));
+        ProductEmitter.EmissionResult result = stream.finish().get();
+
+        assertEquals(1, result.acknowledged());
+        assertEquals(2, result.failed());
+        assertEquals(1.0, meterRegistry.get("scraper_kafka_records_total").tag("outcome", "acked").counter().count(), 0);
+        assertEquals(2.0, meterRegistry.get("scraper_kafka_records_total").tag("outcome", "failed").counter().count(), 0);
+    }
+
+    @Test
+    void failuresCompletedAfterFinishAreCountedOnce() throws Exception {
+        CompletableFuture<SendResult<String, ProductDTO>> pending = new CompletableFuture<>();
+        ProductEmitter emitter = emitter(name -> name.startsWith("bad") ? pending : CompletableFuture.completedFuture(sent(name)));
+
+        ProductEmitter.Stream stream = emitter.open(Retailer.TESCO);
+        stream.send(product("good milk"));
+        stream.send(product("bad bread"));
+        CompletableFuture<ProductEmitter.EmissionResult> finished = stream.finish();
+        pending.completeExceptionally(new IllegalStateException("broker down"));
+
+        assertEquals(new ProductEmitter.EmissionResult(1, 1, 0, 10L), finished.get());
+    }
+
+    private ProductEmitter emitter(Function<String, CompletableFuture<SendResult<String, ProductDTO>>> broker) {
+        // The factory never builds a producer, since send is answered here
+        KafkaTemplate<String, ProductDTO> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())) {
+            @Override
+            public CompletableFuture<SendResult<String, ProductDTO>> send(String topic, String key, ProductDTO data) {
+                return broker.apply(data.getName());
+            }
+        };
+        ScraperProperties properties = new ScraperProperties();
+        properties.getEmissionFilter().setEnabled(false);
+        return new ProductEmitter(template, new RecentEmissionFilter(properties, meterRegistry), properties, meterRegistry);
+    }
+
+    private static SendResult<String, ProductDTO> sent(String name) {
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(ProductEmitter.TOPIC, 0), 0, 0, 0L, 0, 10);
+        return new SendResult<>(new ProducerRecord<>(ProductEmitter.TOPIC, name, null), metadata);
+    }
+
+    private static ProductDTO product(String name) {
+        return ProductDTO.builder()
+                .name(name)
+                .retailer(Retailer.TESCO.name())
+                .price(new BigDecimal("1.00"))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.poundsaver.scraper.scheduling;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyTrackerTest {
+
+    private final ScraperProperties properties = new ScraperProperties();
+
+    @Test
+    void staticTimeoutAppliesUntilEnoughSamples() {
+        properties.getLatency().setMinSamples(20);
+        LatencyTracker tracker = tracker();
+        recordMillis(tracker, LatencyTracker.Phase.NAVIGATION, 19, 40_000);
+        recordMillis(tracker, LatencyTracker.Phase.FIRST_PRODUCT, 19, 40_000);
+
+        assertEquals(properties.getTimeouts().getNavigation(), tracker.navigationTimeout(Retailer.TESCO));
+        assertEquals(Optional.empty(), tracker.hedgeDelay(Retailer.TESCO));
+
+        recordMillis(tracker, LatencyTracker.Phase.NAVIGATION, 1, 40_000);
+        assertTrue(tracker.navigationTimeout(Retailer.TESCO).compareTo(properties.getTimeouts().getNavigation()) != 0);
+        assertEquals(properties.getTimeouts().getNavigation(), tracker.navigationTimeout(Retailer.ASDA));
+    }
+
+    @Test
+    void navigationTimeoutIsScaledP99() {
+        properties.getLatency().setMinNavigationTimeout(Duration.ofMillis(1));
+        LatencyTracker tracker = tracker();
+        for (int millis = 1; millis <= 1000; millis++) {
+            tracker.record(Retailer.TESCO, LatencyTracker.Phase.NAVIGATION, Duration.ofMillis(millis).toNanos());
+        }
+
+        assertWithinPercent(990 * 1.5, tracker.navigationTimeout(Retailer.TESCO).toNanos() / 1e6);
+    }
+
+    @Test
+    void navigationTimeoutIsClamped() {
+        LatencyTracker tracker = tracker();
+        recordMillis(tracker, LatencyTracker.Phase.NAVIGATION, 50, 1);
+        assertEquals(properties.getLatency().getMinNavigationTimeout(), tracker.navigationTimeout(Retailer.TESCO));
+
+        recordMillis(tracker, LatencyTracker.Phase.NAVIGATION, 50, 300_000);
+        assertEquals(properties.getLatency().getMaxNavigationTimeout(), tracker.navigationTimeout(Retailer.TESCO));
+    }
+
+    @Test
+    void hedgeDelayIsP95OfFirstProduct() {
+        properties.getLatency().setMinHedgeDelay(Duration.ZERO);
+        LatencyTracker tracker = tracker();
+        for (int millis = 1; millis <= 1000; millis++) {
+            tracker.record(Retailer.TESCO, LatencyTracker.Phase.FIRST_PRODUCT, Duration.ofMillis(millis).toNanos());
+        }
+
+        assertWithinPercent(950, tracker.hedgeDelay(Retailer.TESCO).orElseThrow().toNanos() / 1e6);
+    }
+
+    @Test
+    void quantilesNeverUnderstateAtBucketBoundaries() {
+        properties.getLatency().setMinSamples(1);
+        properties.getLatency().setMinHedgeDelay(Duration.ZERO);
+        for (long micros : new long[]{0, 1, 15, 16, 17, 127, 128, 129, 1023, 1024, 1025, 65_535, 65_536, 60_000_000}) {
+            LatencyTracker tracker = tracker();
+            tracker.record(Retailer.TESCO, LatencyTracker.Phase.FIRST_PRODUCT, micros * 1000);
+
+            long reported = tracker.hedgeDelay(Retailer.TESCO).orElseThrow().toNanos() / 1000;
+            assertTrue(reported >= micros && reported <= Math.max(micros * 1.01, micros + 1),
+                    micros + "us reported as " + reported + "us");
+        }
+    }
+
+    @Test
+    void samplesAgeOutOfTheWindow() throws InterruptedException {
+        properties.getLatency().setWindow(Duration.ofMillis(200));
+        properties.getLatency().setSlices(4);
+        properties.getLatency().setMinHedgeDelay(Duration.ZERO);
+        LatencyTracker tracker = tracker();
+        recordMillis(tracker, LatencyTracker.Phase.FIRST_PRODUCT, 20, 5_000);
+        assertWithinPercent(5_000, tracker.hedgeDelay(Retailer.TESCO).orElseThrow().toMillis());
+
+        Thread.sleep(300);
+        assertEquals(Optional.empty(), tracker.hedgeDelay(Retailer.TESCO));
+
+        recordMillis(tracker, LatencyTracker.Phase.FIRST_PRODUCT, 20, 100);
+        assertWithinPercent(100, tracker.hedgeDelay(Retailer.TESCO).orElseThrow().toMillis());
+    }
+
+    private LatencyTracker tracker() {
+        return new LatencyTracker(properties, new SimpleMeterRegistry());
+    }
+
+    private static void recordMillis(LatencyTracker tracker, LatencyTracker.Phase phase, int samples, long millis) {
+        for (int i = 0; i < samples; i++) {
+            tracker.record(Retailer.TESCO, phase, Duration.ofMillis(millis).toNanos());
+        }
+    }
+
+    private static void assertWithinPercent(double expected, double actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.01, "expected ~" + expected + ", got " + actual);
+    }
+}
@@ -0,0 +1,130 @@
+package com.poundsaver.scraper.service;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.entity.ScrapeJob;
+import com.poundsaver.scraper.repository.ScrapeJobRepository;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobRegistryTest {
+
+    /** Each saveAll call, as job id to whether the row was saved as an insert. */
+    private final List<Map<String, Boolean>> saves = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch saveEntered;
+    private volatile CountDownLatch saveReleased;
+    private volatile boolean failNextSave;
+
+    @Test
+    void updateDuringSlowFlushIsWrittenAsUpdate() throws Exception {
+        JobRegistry registry = registry();
+        ScrapingJobDTO job = job(JobStatus.PENDING);
+        registry.update(job);
+
+        // saveAll clears the field once entered, so wait on a local reference
+        CountDownLatch entered = new CountDownLatch(1);
+        saveEntered = entered;
+        saveReleased = new CountDownLatch(1);
+        Thread flusher = new Thread(registry::flush);
+        flusher.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        job.setStatus(JobStatus.IN_PROGRESS);
+        registry.update(job);
+        saveReleased.countDown();
+        flusher.join(5_000);
+
+        registry.flush();
+        assertEquals(List.of(Map.of(job.getJobId(), true), Map.of(job.getJobId(), false)), saves);
+    }
+
+    @Test
+    void failedBatchInsertsAgainOnRetry() {
+        JobRegistry registry = registry();
+        ScrapingJobDTO job = job(JobStatus.PENDING);
+        registry.update(job);
+
+        failNextSave = true;
+        registry.flush();
+        job.setStatus(JobStatus.COMPLETED);
+        registry.update(job);
+        registry.flush();
+
+        assertEquals(List.of(Map.of(job.getJobId(), true), Map.of(job.getJobId(), true)), saves);
+    }
+
+    @Test
+    void updateAfterEvictionIsWrittenAsUpdate() {
+        JobRegistry registry = registry();
+        ScrapingJobDTO job = job(JobStatus.PENDING);
+        registry.update(job);
+        job.setStatus(JobStatus.COMPLETED);
+        registry.update(job);
+        registry.flush();
+
+        job.setStatus(JobStatus.CANCELLED);
+        registry.update(job);
+        registry.flush();
+
+        assertEquals(List.of(Map.of(job.getJobId(), true), Map.of(job.getJobId(), false)), saves);
+    }
+
+    private JobRegistry registry() {
+        ScrapeJobRepository repository = (ScrapeJobRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ScrapeJobRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "saveAll" -> {
+                            return saveAll((Iterable<?>) args[0]);
+                        }
+                        case "findById" -> {
+                            return Optional.empty();
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return new JobRegistry(repository, new ScraperProperties(), new SimpleMeterRegistry());
+    }
+
+    private Object saveAll(Iterable<?> jobs) throws InterruptedException {
+        Map<String, Boolean> inserts = new LinkedHashMap<>();
+        for (Object job : jobs) {
+            inserts.put(((ScrapeJob) job).getId(), ((ScrapeJob) job).isNew());
+        }
+        saves.add(inserts);
+        CountDownLatch entered = saveEntered;
+        if (entered != null) {
+            saveEntered = null;
+            entered.countDown();
+            assertTrue(saveReleased.await(5, TimeUnit.SECONDS));
+        }
+        if (failNextSave) {
+            failNextSave = false;
+            throw new IllegalStateException("duplicate key value violates unique constraint");
+        }
+        return List.copyOf(inserts.keySet());
+    }
+
+    private static ScrapingJobDTO job(JobStatus status) {
+        return ScrapingJobDTO.builder()
+                .jobId(UUID.randomUUID().toString())
+                .retailer(Retailer.TESCO)
+                .searchQuery("milk")
+                .status(status)
+                .build();
+    }
+}
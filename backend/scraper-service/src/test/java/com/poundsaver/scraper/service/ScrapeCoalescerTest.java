@@ -0,0 +1,123 @@
+package com.poundsaver.scraper.service;
+
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.shared.dto.ScrapingJobDTO;
+import com.poundsaver.shared.enums.JobStatus;
+import com.poundsaver.shared.enums.Retailer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScrapeCoalescerTest {
+
+    private final ScrapeCoalescer coalescer = new ScrapeCoalescer(new ScraperProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void callerArrivingDuringSlowLaunchJoinsTheLaunchedFlight() throws Exception {
+        CountDownLatch launching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger launches = new AtomicInteger();
+        CompletableFuture<ScrapeCoalescer.Flight> leader = CompletableFuture.supplyAsync(() ->
+                coalescer.join(Retailer.TESCO, "milk", () -> {
+                    launches.incrementAndGet();
+                    launching.countDown();
+                    await(release);
+                    return flight();
+                }));
+        assertTrue(launching.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ScrapeCoalescer.Flight> follower = CompletableFuture.supplyAsync(() ->
+                coalescer.join(Retailer.TESCO, "  MILK ", () -> {
+                    launches.incrementAndGet();
+                    return flight();
+                }));
+        // Another query is not held up by the slow launch
+        ScrapeCoalescer.Flight bread = coalescer.join(Retailer.TESCO, "bread", ScrapeCoalescerTest::flight);
+        assertFalse(follower.isDone());
+
+        release.countDown();
+        assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        assertNotSame(bread, leader.get());
+        assertEquals(1, launches.get());
+    }
+
+    @Test
+    void launcherMayStartAnotherFlight() {
+        ScrapeCoalescer.Flight[] inner = new ScrapeCoalescer.Flight[1];
+        ScrapeCoalescer.Flight outer = coalescer.join(Retailer.TESCO, "milk", () -> {
+            inner[0] = coalescer.join(Retailer.ASDA, "milk", ScrapeCoalescerTest::flight);
+            return flight();
+        });
+
+        assertNotSame(outer, inner[0]);
+        assertSame(inner[0], coalescer.join(Retailer.ASDA, "milk", ScrapeCoalescerTest::flight));
+    }
+
+    @Test
+    void failedLaunchIsForgotten() {
+        assertThrows(IllegalStateException.class, () -> coalescer.join(Retailer.TESCO, "milk", () -> {
+            throw new IllegalStateException("registry unavailable");
+        }));
+
+        ScrapeCoalescer.Flight flight = flight();
+        assertSame(flight, coalescer.join(Retailer.TESCO, "milk", () -> flight));
+    }
+
+    @Test
+    void failedJobIsNotReused() {
+        CompletableFuture<ScrapingJobDTO> result = new CompletableFuture<>();
+        ScrapeCoalescer.Flight failed = coalescer.join(Retailer.TESCO, "milk",
+                () -> new ScrapeCoalescer.Flight(job(), result, List.of()));
+        ScrapingJobDTO job = failed.job();
+        job.setStatus(JobStatus.FAILED);
+        result.complete(job);
+
+        assertNotSame(failed, coalescer.join(Retailer.TESCO, "milk", ScrapeCoalescerTest::flight));
+    }
+
+    @Test
+    void completedJobIsReusedWithinTheWindow() {
+        CompletableFuture<ScrapingJobDTO> result = new CompletableFuture<>();
+        ScrapeCoalescer.Flight done = coalescer.join(Retailer.TESCO, "milk",
+                () -> new ScrapeCoalescer.Flight(job(), result, List.of()));
+        ScrapingJobDTO job = done.job();
+        job.setStatus(JobStatus.COMPLETED);
+        result.complete(job);
+
+        assertSame(done, coalescer.join(Retailer.TESCO, "milk", ScrapeCoalescerTest::flight));
+    }
+
+    private static ScrapeCoalescer.Flight flight() {
+        return new ScrapeCoalescer.Flight(job(), new CompletableFuture<>(), List.of());
+    }
+
+    private static ScrapingJobDTO job() {
+        return ScrapingJobDTO.builder()
+                .jobId(UUID.randomUUID().toString())
+                .retailer(Retailer.TESCO)
+                .searchQuery("milk")
+                .status(JobStatus.PENDING)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.poundsaver.scraper.strategy;
+
+import com.microsoft.playwright.Page;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadinessConditionTest {
+
+    private final List<Object> listeners = new ArrayList<>();
+
+    @Test
+    void responseListenerIsRemovedWhenNavigationFails() {
+        Page page = page();
+
+        assertThrows(IllegalStateException.class, () -> {
+            try (ReadinessCondition.Waiter ignored = ReadinessCondition.response(Pattern.compile("/api/search")).arm(page)) {
+                assertEquals(1, listeners.size());
+                throw new IllegalStateException("navigation timed out");
+            }
+        });
+        assertEquals(List.of(), listeners);
+    }
+
+    @Test
+    void responseListenersDoNotAccumulateOnAReusedPage() {
+        Page page = page();
+        ReadinessCondition condition = ReadinessCondition.response(Pattern.compile("/api/search"));
+
+        for (int i = 0; i < 5; i++) {
+            try (ReadinessCondition.Waiter ignored = condition.arm(page)) {
+                // Navigation is abandoned before the waiter is awaited
+            }
+        }
+        assertEquals(List.of(), listeners);
+    }
+
+    private Page page() {
+        return (Page) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Page.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "onResponse" -> {
+                        listeners.add(args[0]);
+                        yield null;
+                    }
+                    case "offResponse" -> {
+                        listeners.remove(args[0]);
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,156 @@
+package com.poundsaver.scraper.strategy;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.ElementHandle;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.poundsaver.scraper.browser.StorageStateStore;
+import com.poundsaver.scraper.config.ScraperProperties;
+import com.poundsaver.scraper.fingerprint.ScrapeFingerprints;
+import com.poundsaver.scraper.scheduling.LatencyTracker;
+import com.poundsaver.scraper.scheduling.PolitenessLimiter;
+import com.poundsaver.shared.enums.Retailer;
+import com.poundsaver.simulator.RetailerSimulator;
+import com.poundsaver.simulator.SimulatorSettings;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares reading a results page with one {@link ScrapeEngine#extractTiles} evaluate call
+ * against the per-element {@link ElementHandle} calls the strategies made before, on saved
+ * HTML loaded with {@code page.setContent}. Reports protocol round trips and wall time per
+ * page. Run {@link #main} from the test classpath, optionally passing a saved Tesco results
+ * page; without one a 48-tile page is rendered by the retailer simulator. Prints a notice and
+ * exits when no Playwright browser is installed.
+ */
+public class TileExtractionBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int MEASURED = 100;
+
+    private int roundTrips;
+
+    public static void main(String[] args) throws Exception {
+        String html = args.length > 0 ? Files.readString(Path.of(args[0])) : simulatedPage();
+
+        Map<String, String> env = Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1");
+        try (Playwright playwright = Playwright.create(new Playwright.CreateOptions().setEnv(env))) {
+            Browser browser;
+            try {
+                browser = playwright.chromium().launch();
+            } catch (PlaywrightException e) {
+                System.out.println("Skipping: no Playwright Chromium installed");
+                return;
+            }
+            Page page = browser.newPage();
+            page.setContent(html);
+            new TileExtractionBenchmark().run(page);
+            browser.close();
+        }
+    }
+
+    private void run(Page page) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ScraperProperties properties = new ScraperProperties();
+        properties.getFingerprints().setEnabled(false);
+        properties.getStorageState().setEnabled(false);
+        ScrapeEngine engine = new ScrapeEngine(properties, new ScrapeFingerprints(properties, meterRegistry),
+                new PolitenessLimiter(properties, meterRegistry), new LatencyTracker(properties, meterRegistry),
+                new StorageStateStore(properties, meterRegistry), RetryRegistry.ofDefaults(), meterRegistry);
+        TileSelectors selectors = new TescoScraperStrategy(engine).tileSelectors();
+
+        int tiles = engine.extractTiles(Retailer.TESCO, page, selectors).size();
+        int perElementTiles = perElement(page, selectors).size();
+        if (tiles != perElementTiles) {
+            throw new IllegalStateException("Paths disagree: " + tiles + " tiles evaluated, " + perElementTiles + " per element");
+        }
+        roundTrips = 0;
+        perElement(page, selectors);
+        int perElementTrips = roundTrips;
+
+        long[] evaluate = time(() -> engine.extractTiles(Retailer.TESCO, page, selectors));
+        long[] handles = time(() -> perElement(page, selectors));
+
+        System.out.printf("%d tiles, %d fields each%n", tiles, selectors.fields().size());
+        System.out.printf("%-12s %12s %12s %12s%n", "path", "round trips", "p50 ms", "mean ms");
+        report("evaluate", 1, evaluate);
+        report("per-element", perElementTrips, handles);
+    }
+
+    /**
+     * The extraction the strategies did before the engine read tiles in one call: a
+     * {@code querySelector} and a {@code textContent} or {@code getAttribute} per field.
+     */
+    private List<Map<String, String>> perElement(Page page, TileSelectors selectors) {
+        List<ElementHandle> elements = page.querySelectorAll(selectors.tile());
+        roundTrips++;
+        List<Map<String, String>> tiles = new ArrayList<>(elements.size());
+        for (ElementHandle element : elements) {
+            Map<String, String> fields = new HashMap<>();
+            selectors.fields().forEach((name, field) -> {
+                ElementHandle target = element.querySelector(field.selector());
+                roundTrips++;
+                String value = null;
+                if (target != null) {
+                    value = field.attribute() != null ? target.getAttribute(field.attribute()) : target.textContent().trim();
+                    roundTrips++;
+                }
+                fields.put(name, value);
+            });
+            tiles.add(fields);
+        }
+        return tiles;
+    }
+
+    private static long[] time(Runnable extraction) {
+        for (int i = 0; i < WARMUP; i++) {
+            extraction.run();
+        }
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            long start = System.nanoTime();
+            extraction.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String path, int roundTrips, long[] nanos) {
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        System.out.printf("%-12s %12d %12.2f %12.2f%n", path, roundTrips, nanos[nanos.length / 2] / 1e6, mean);
+    }
+
+    private static String simulatedPage() throws IOException, InterruptedException {
+        try (RetailerSimulator simulator = new RetailerSimulator(SimulatorSettings.builder()
+                .port(0)
+                .threads(1)
+                .pageSize(48)
+                .medianLatency(Duration.ZERO)
+                .p99Latency(Duration.ZERO)
+                .errorRate(0)
+                .build())) {
+            simulator.start();
+            URI uri = URI.create(simulator.baseUrl(Retailer.TESCO) + "/groceries/en-GB/search?query=milk");
+            return HttpClient.newHttpClient()
+                    .send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString())
+                    .body();
+        }
+    }
+}
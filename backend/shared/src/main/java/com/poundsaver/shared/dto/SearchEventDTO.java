@@ -0,0 +1,78 @@
+package com.poundsaver.shared.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public class SearchEventDTO {
+    private String query;
+    private Integer resultCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime searchedAt;
+
+    // Default constructor
+    public SearchEventDTO() {}
+
+    // All-args constructor
+    public SearchEventDTO(String query, Integer resultCount, LocalDateTime searchedAt) {
+        this.query = query;
+        this.resultCount = resultCount;
+        this.searchedAt = searchedAt;
+    }
+
+    // Static builder method
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+
+    public Integer getResultCount() { return resultCount; }
+    public void setResultCount(Integer resultCount) { this.resultCount = resultCount; }
+
+    public LocalDateTime getSearchedAt() { return searchedAt; }
+    public void setSearchedAt(LocalDateTime searchedAt) { this.searchedAt = searchedAt; }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchEventDTO that = (SearchEventDTO) o;
+        return Objects.equals(query, that.query) && Objects.equals(searchedAt, that.searchedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(query, searchedAt);
+    }
+
+    // toString
+    @Override
+    public String toString() {
+        return "SearchEventDTO{" +
+                "query='" + query + '\'' +
+                ", resultCount=" + resultCount +
+                ", searchedAt=" + searchedAt +
+                '}';
+    }
+
+    // Builder pattern implementation
+    public static class Builder {
+        private String query;
+        private Integer resultCount;
+        private LocalDateTime searchedAt;
+
+        public Builder query(String query) { this.query = query; return this; }
+        public Builder resultCount(Integer resultCount) { this.resultCount = resultCount; return this; }
+        public Builder searchedAt(LocalDateTime searchedAt) { this.searchedAt = searchedAt; return this; }
+
+        public SearchEventDTO build() {
+            return new SearchEventDTO(query, resultCount, searchedAt);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.poundsaver.shared.exception;
+
+import java.time.Duration;
+
+public class ScrapingRejectedException extends ScrapingException {
+    private final Duration retryAfter;
+
+    public ScrapingRejectedException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * {@code retryAfter} is how long until the rejected work would likely be accepted, or
+     * {@code null} if that is not known.
+     */
+    public ScrapingRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -2,48 +2,208 @@ package com.poundsaver.shared.util;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class PriceCalculator {
-    
-    private static final Pattern QUANTITY_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(ml|l|g|kg|pint|litre|liter)", Pattern.CASE_INSENSITIVE);
-    
+
+    private static final UnitWord[] UNIT_WORDS = {
+            new UnitWord("g", BaseUnit.GRAM, 1),
+            new UnitWord("gr", BaseUnit.GRAM, 1),
+            new UnitWord("gram", BaseUnit.GRAM, 1),
+            new UnitWord("grams", BaseUnit.GRAM, 1),
+            new UnitWord("kg", BaseUnit.GRAM, 1000),
+            new UnitWord("kilo", BaseUnit.GRAM, 1000),
+            new UnitWord("kilos", BaseUnit.GRAM, 1000),
+            new UnitWord("ml", BaseUnit.MILLILITRE, 1),
+            new UnitWord("cl", BaseUnit.MILLILITRE, 10),
+            new UnitWord("l", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("ltr", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("litre", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("litres", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("liter", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("liters", BaseUnit.MILLILITRE, 1000),
+            new UnitWord("pint", BaseUnit.MILLILITRE, 568.26),
+            new UnitWord("pints", BaseUnit.MILLILITRE, 568.26),
+            new UnitWord("pt", BaseUnit.MILLILITRE, 568.26),
+            new UnitWord("sheet", BaseUnit.SHEET, 1),
+            new UnitWord("sheets", BaseUnit.SHEET, 1),
+            new UnitWord("each", BaseUnit.ITEM, 1),
+            new UnitWord("ea", BaseUnit.ITEM, 1),
+            new UnitWord("pack", BaseUnit.ITEM, 1),
+            new UnitWord("packs", BaseUnit.ITEM, 1),
+            new UnitWord("pk", BaseUnit.ITEM, 1),
+            new UnitWord("pcs", BaseUnit.ITEM, 1),
+            new UnitWord("piece", BaseUnit.ITEM, 1),
+            new UnitWord("pieces", BaseUnit.ITEM, 1),
+            new UnitWord("item", BaseUnit.ITEM, 1),
+            new UnitWord("items", BaseUnit.ITEM, 1),
+    };
+
+    /**
+     * Price per gram or millilitre, or the price itself when no weight or volume is stated.
+     */
     public static BigDecimal calculatePricePerUnit(BigDecimal price, String productName, String size) {
         if (price == null || price.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
-        
+
         Double quantity = extractQuantity(productName, size);
         if (quantity == null || quantity == 0) {
             return price;
         }
-        
+
         return price.divide(BigDecimal.valueOf(quantity), 4, RoundingMode.HALF_UP);
     }
-    
+
+    /**
+     * Total weight in grams or volume in millilitres across all packs, or {@code null} when
+     * neither is stated. Counts and sheets are left to {@link #parseQuantity}.
+     */
     public static Double extractQuantity(String productName, String size) {
-        String text = (productName + " " + (size != null ? size : "")).toLowerCase();
-        
-        Matcher matcher = QUANTITY_PATTERN.matcher(text);
-        if (matcher.find()) {
-            double value = Double.parseDouble(matcher.group(1));
-            String unit = matcher.group(2).toLowerCase();
-            
-            return switch (unit) {
-                case "kg" -> value * 1000;
-                case "l", "litre", "liter" -> value * 1000;
-                case "pint" -> value * 568.26;
-                default -> value;
-            };
-        }
-        
-        return null;
+        Quantity quantity = parseQuantity(productName, size);
+        if (quantity.unit() != BaseUnit.GRAM && quantity.unit() != BaseUnit.MILLILITRE) {
+            return null;
+        }
+        return quantity.total();
+    }
+
+    /**
+     * Price per display unit of {@code quantity} ("per 100g", "per litre", ...), or the price
+     * itself when the quantity is unknown. Pair it with {@link #displayUnit}.
+     */
+    public static BigDecimal pricePerDisplayUnit(BigDecimal price, Quantity quantity) {
+        if (price == null || price.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (!quantity.isKnown()) {
+            return price;
+        }
+
+        return price.multiply(BigDecimal.valueOf(quantity.unit().displayAmount))
+                .divide(BigDecimal.valueOf(quantity.total()), 4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Reads the pack quantity from {@code size}, falling back to the product name. Understands
+     * plain measures ("500g", "1.5L", "2 Pints", "75cl"), multipacks ("4 x 500ml", "500ml x 4",
+     * "Pack of 6"), counts ("6 Pack", "12 each") and sheet counts.
+     */
+    public static Quantity parseQuantity(CharSequence productName, CharSequence size) {
+        Quantity quantity = parseQuantity(size);
+        return quantity.isKnown() ? quantity : parseQuantity(productName);
+    }
+
+    public static Quantity parseQuantity(CharSequence text) {
+        if (text == null) {
+            return Quantity.NONE;
+        }
+
+        int length = text.length();
+        double measure = 0;
+        BaseUnit measureUnit = null;
+        int packs = 1;
+        double pendingNumber = -1;
+        boolean multiplierNext = false;
+        boolean packOfNext = false;
+        int i = 0;
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (isDigit(c)) {
+                double value = 0;
+                while (i < length) {
+                    if (isDigit(text.charAt(i))) {
+                        value = value * 10 + (text.charAt(i++) - '0');
+                    } else if (text.charAt(i) == ',' && isThousandsGroup(text, i + 1)) {
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i + 1 < length && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+                    double scale = 0.1;
+                    i++;
+                    while (i < length && isDigit(text.charAt(i))) {
+                        value += (text.charAt(i++) - '0') * scale;
+                        scale /= 10;
+                    }
+                }
+
+                if (multiplierNext || packOfNext) {
+                    // "500ml x 4" or "Pack of 6"
+                    if (value >= 1 && value == Math.floor(value)) {
+                        packs = (int) value;
+                    }
+                    multiplierNext = false;
+                    packOfNext = false;
+                    pendingNumber = -1;
+                } else {
+                    pendingNumber = value;
+                }
+                continue;
+            }
+
+            if (isLetter(c)) {
+                int end = i;
+                while (end < length && isLetter(text.charAt(end))) {
+                    end++;
+                }
+
+                if (end - i == 1 && (c == 'x' || c == 'X')) {
+                    if (pendingNumber >= 1 && pendingNumber == Math.floor(pendingNumber)) {
+                        // "4 x 500ml"
+                        packs = (int) pendingNumber;
+                    } else if (measureUnit != null) {
+                        multiplierNext = true;
+                    }
+                } else if (matches(text, i, end, "of") && packOfNext) {
+                    // "Pack of 6": keep waiting for the count
+                } else {
+                    UnitWord unit = pendingNumber >= 0 ? unitWord(text, i, end) : null;
+                    if (unit != null) {
+                        if (unit.unit == BaseUnit.ITEM) {
+                            if (pendingNumber >= 1 && pendingNumber == Math.floor(pendingNumber)) {
+                                packs = (int) pendingNumber;
+                            }
+                        } else if (measureUnit == null) {
+                            measure = pendingNumber * unit.factor;
+                            measureUnit = unit.unit;
+                        }
+                    }
+                    packOfNext = pendingNumber < 0 && (matches(text, i, end, "pack") || matches(text, i, end, "packs"));
+                    multiplierNext = false;
+                }
+                pendingNumber = -1;
+                i = end;
+                continue;
+            }
+
+            if (c == '\u00d7' || c == '*') {
+                if (pendingNumber >= 1 && pendingNumber == Math.floor(pendingNumber)) {
+                    packs = (int) pendingNumber;
+                } else if (measureUnit != null) {
+                    multiplierNext = true;
+                }
+                pendingNumber = -1;
+            } else if (c != ' ' && c != '\u00a0' && c != '-') {
+                pendingNumber = -1;
+                packOfNext = false;
+            }
+            i++;
+        }
+
+        if (measureUnit != null && measure > 0) {
+            return new Quantity(measure * packs, packs, measureUnit);
+        }
+        if (packs > 1) {
+            return new Quantity(packs, packs, BaseUnit.ITEM);
+        }
+        return Quantity.NONE;
     }
-    
+
     public static String normalizeUnit(String unit) {
         if (unit == null) return "per item";
-        
+
         return switch (unit.toLowerCase()) {
             case "kg", "g" -> "per 100g";
             case "l", "ml", "litre", "liter" -> "per litre";
@@ -51,4 +211,85 @@ public class PriceCalculator {
             default -> "per item";
         };
     }
+
+    /**
+     * The unit label {@link #pricePerDisplayUnit} is expressed in.
+     */
+    public static String displayUnit(Quantity quantity) {
+        return quantity.isKnown() ? quantity.unit().label : BaseUnit.ITEM.label;
+    }
+
+    private static UnitWord unitWord(CharSequence text, int start, int end) {
+        for (UnitWord word : UNIT_WORDS) {
+            if (matches(text, start, end, word.word)) {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isThousandsGroup(CharSequence text, int start) {
+        if (start + 3 > text.length()) {
+            return false;
+        }
+        for (int j = start; j < start + 3; j++) {
+            if (!isDigit(text.charAt(j))) {
+                return false;
+            }
+        }
+        return start + 3 == text.length() || !isDigit(text.charAt(start + 3));
+    }
+
+    private static boolean matches(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int j = 0; j < word.length(); j++) {
+            if (Character.toLowerCase(text.charAt(start + j)) != word.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    public enum BaseUnit {
+        GRAM("per 100g", 100),
+        MILLILITRE("per litre", 1000),
+        SHEET("per 100 sheets", 100),
+        ITEM("per item", 1);
+
+        private final String label;
+        private final int displayAmount;
+
+        BaseUnit(String label, int displayAmount) {
+            this.label = label;
+            this.displayAmount = displayAmount;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * A pack's total size in its base unit, e.g. "4 x 500ml" is 2000 MILLILITRE over 4 packs.
+     */
+    public record Quantity(double total, int packs, BaseUnit unit) {
+        public static final Quantity NONE = new Quantity(0, 1, null);
+
+        public boolean isKnown() {
+            return unit != null && total > 0;
+        }
+    }
+
+    private record UnitWord(String word, BaseUnit unit, double factor) {
+    }
 }
@@ -0,0 +1,244 @@
+package com.poundsaver.shared.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Single-pass parser for UK shelf price text. Understands "£1.50", "85p", "£1,250.00",
+ * per-unit text such as "£1.20/kg" or "12.5p per 100g", loyalty labels such as
+ * "Clubcard Price £2.50", "Was £3 Now £2", and multibuys such as "3 for £5" or "Any 2 for £3",
+ * which yield the effective price of one item. Works on the characters directly without
+ * regexes or intermediate strings, and returns whole pence as a {@code long}, or
+ * {@link #NO_PRICE} when the text does not contain a usable price.
+ */
+public class PriceParser {
+
+    public static final long NO_PRICE = -1L;
+
+    private static final int MAX_DIGITS = 15;
+
+    public static long parsePence(CharSequence text) {
+        if (text == null) {
+            return NO_PRICE;
+        }
+
+        int length = text.length();
+        long money = NO_PRICE;
+        long barePounds = NO_PRICE;
+        long quantity = 1;
+        boolean skipNextAmount = false;
+        boolean sterling = false;
+        int tokens = 0;
+        int i = 0;
+
+        while (i < length && money == NO_PRICE) {
+            char c = text.charAt(i);
+
+            if (c == '£') {
+                sterling = true;
+                i++;
+                continue;
+            }
+
+            if (isLetter(c)) {
+                tokens++;
+                int end = wordEnd(text, i);
+                if (matchesWord(text, i, end, "was")) {
+                    skipNextAmount = true;
+                } else if (matchesWord(text, i, end, "now")) {
+                    skipNextAmount = false;
+                }
+                sterling = false;
+                i = end;
+                continue;
+            }
+
+            // "£.99": a point straight after the pound sign starts the pence
+            boolean leadingPoint = c == '.' && sterling && i + 1 < length && isDigit(text.charAt(i + 1));
+            if (!isDigit(c) && !leadingPoint) {
+                if (c != ' ' && c != '\u00a0') {
+                    sterling = false;
+                }
+                i++;
+                continue;
+            }
+
+            // Number: integer part with optional thousands separators, then optional decimals
+            tokens++;
+            long whole = 0;
+            int digits = 0;
+            while (i < length) {
+                char d = text.charAt(i);
+                if (isDigit(d)) {
+                    if (++digits > MAX_DIGITS) {
+                        return NO_PRICE;
+                    }
+                    whole = whole * 10 + (d - '0');
+                    i++;
+                } else if (d == ',' && isThousandsGroup(text, i + 1)) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+
+            long fraction = 0;
+            int fractionDigits = 0;
+            boolean hasPoint = false;
+            if (i + 1 < length && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+                hasPoint = true;
+                i++;
+                while (i < length && isDigit(text.charAt(i))) {
+                    if (fractionDigits < 3) {
+                        fraction = fraction * 10 + (text.charAt(i) - '0');
+                        fractionDigits++;
+                    }
+                    i++;
+                }
+            }
+
+            int next = skipSpaces(text, i);
+            long amount;
+            if (next < length && (text.charAt(next) == 'p' || text.charAt(next) == 'P')
+                    && (next + 1 >= length || !isLetter(text.charAt(next + 1))
+                        || matchesWord(text, next, wordEnd(text, next), "pence"))) {
+                // Pence: "85p", "12.5p", "50 pence"
+                amount = whole + roundFraction(fraction, fractionDigits, 0);
+                i = wordEnd(text, next);
+            } else if (sterling || hasPoint) {
+                amount = whole * 100 + roundFraction(fraction, fractionDigits, 2);
+            } else {
+                int wordEnd = next < length && isLetter(text.charAt(next)) ? wordEnd(text, next) : next;
+                if (matchesWord(text, next, wordEnd, "for") && whole > 1) {
+                    // "3 for £5": remember the count, the amount follows
+                    quantity = whole;
+                    i = wordEnd;
+                } else if (barePounds == NO_PRICE) {
+                    barePounds = whole * 100;
+                }
+                sterling = false;
+                continue;
+            }
+
+            sterling = false;
+            if (skipNextAmount) {
+                skipNextAmount = false;
+                continue;
+            }
+            money = amount;
+        }
+
+        if (money == NO_PRICE && tokens == 1) {
+            // A bare integer is pounds only when it is the whole text, e.g. a "3" in a value
+            // span; "3 for 2" or "Pack of 4" carry no price
+            money = barePounds;
+        }
+        if (money == NO_PRICE || money == 0) {
+            return NO_PRICE;
+        }
+        return quantity > 1 ? (money + quantity / 2) / quantity : money;
+    }
+
+    /**
+     * Number of items a multibuy applies to ("3 for £5" is 3), or 1 when the text is not a
+     * multibuy.
+     */
+    public static int multibuyQuantity(CharSequence text) {
+        if (text == null) {
+            return 1;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isDigit(text.charAt(i))) {
+                i = isLetter(text.charAt(i)) ? wordEnd(text, i) : i + 1;
+                continue;
+            }
+            long value = 0;
+            int digits = 0;
+            while (i < length && isDigit(text.charAt(i)) && digits++ < 6) {
+                value = value * 10 + (text.charAt(i++) - '0');
+            }
+            boolean partOfAmount = i < length && (text.charAt(i) == '.' || text.charAt(i) == ',');
+            int next = skipSpaces(text, i);
+            if (!partOfAmount && value > 1 && next < length && matchesWord(text, next, wordEnd(text, next), "for")) {
+                return (int) value;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Pounds with two decimal places, or {@code null} for {@link #NO_PRICE}.
+     */
+    public static BigDecimal toPounds(long pence) {
+        return pence < 0 ? null : BigDecimal.valueOf(pence, 2);
+    }
+
+    public static BigDecimal parsePounds(CharSequence text) {
+        return toPounds(parsePence(text));
+    }
+
+    private static long roundFraction(long fraction, int fractionDigits, int keep) {
+        // Scale the parsed fraction to `keep` digits, rounding half up
+        long value = fraction;
+        int digits = fractionDigits;
+        while (digits < keep) {
+            value *= 10;
+            digits++;
+        }
+        boolean roundUp = false;
+        while (digits > keep) {
+            roundUp = value % 10 >= 5;
+            value /= 10;
+            digits--;
+        }
+        return roundUp ? value + 1 : value;
+    }
+
+    private static boolean isThousandsGroup(CharSequence text, int start) {
+        if (start + 3 > text.length()) {
+            return false;
+        }
+        for (int j = start; j < start + 3; j++) {
+            if (!isDigit(text.charAt(j))) {
+                return false;
+            }
+        }
+        return start + 3 == text.length() || !isDigit(text.charAt(start + 3));
+    }
+
+    private static int skipSpaces(CharSequence text, int i) {
+        while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\u00a0')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int wordEnd(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && isLetter(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean matchesWord(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int j = 0; j < word.length(); j++) {
+            if (Character.toLowerCase(text.charAt(start + j)) != word.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,127 @@
+package com.poundsaver.shared.util;
+
+import com.poundsaver.shared.dto.ProductDTO;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic product IDs, so every scrape of the same retailer item maps to the same row.
+ * The identity is the retailer plus, in order of preference, the product's barcode, its
+ * canonical product-page URL, or its normalised name and pack size.
+ */
+public class ProductIdentity {
+
+    private static final Set<String> TRACKING_PARAMS = Set.of("gclid", "fbclid", "msclkid", "ref", "cid", "sc_cmp");
+
+    public static ProductDTO assign(ProductDTO product) {
+        product.setId(idFor(product));
+        return product;
+    }
+
+    public static String idFor(ProductDTO product) {
+        return idFor(product.getRetailer(), product.getEan(), product.getProductUrl(), product.getName(), product.getSize());
+    }
+
+    public static String idFor(String retailer, String ean, String productUrl, String name, String size) {
+        if (retailer == null || retailer.isBlank()) {
+            throw new IllegalArgumentException("Retailer is required for a product identity");
+        }
+
+        String basis;
+        String barcode = normalizeEan(ean);
+        String url = canonicalUrl(productUrl);
+        if (barcode != null) {
+            basis = "ean:" + barcode;
+        } else if (url != null) {
+            basis = "url:" + url;
+        } else {
+            basis = "name:" + normalizeName(name) + "|" + normalizeName(size);
+        }
+
+        String prefix = retailer.trim().toLowerCase(Locale.ROOT);
+        return prefix + "-" + sha256(prefix + "|" + basis).substring(0, 24);
+    }
+
+    /**
+     * Returns the barcode's digits if it has a valid GTIN length, otherwise {@code null}.
+     */
+    public static String normalizeEan(String ean) {
+        if (ean == null) {
+            return null;
+        }
+        String digits = ean.replaceAll("\\D", "");
+        return switch (digits.length()) {
+            case 8, 12, 13, 14 -> digits;
+            default -> null;
+        };
+    }
+
+    /**
+     * Lower-cases scheme and host, drops {@code www.}, the fragment, trailing slashes and
+     * tracking parameters, and sorts the remaining query. Returns {@code null} for URLs that
+     * do not point below the site root, since those cannot identify a single product.
+     */
+    public static String canonicalUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        if (uri.getHost() == null) {
+            return null;
+        }
+
+        String path = uri.getPath() == null ? "" : uri.getPath().replaceAll("/+$", "");
+        if (path.isEmpty()) {
+            return null;
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.startsWith("www.")) {
+            host = host.substring(4);
+        }
+
+        String query = uri.getRawQuery() == null ? "" : Arrays.stream(uri.getRawQuery().split("&"))
+                .filter(param -> !param.isEmpty())
+                .filter(param -> {
+                    String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+                    return !name.startsWith("utm_") && !TRACKING_PARAMS.contains(name);
+                })
+                .sorted()
+                .collect(Collectors.joining("&"));
+
+        return host + path + (query.isEmpty() ? "" : "?" + query);
+    }
+
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.toLowerCase(Locale.ROOT)
+                .replace("&", " and ")
+                .replaceAll("[^a-z0-9.]+", " ")
+                .trim();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
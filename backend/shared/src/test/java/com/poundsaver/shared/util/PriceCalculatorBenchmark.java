@@ -0,0 +1,102 @@
+package com.poundsaver.shared.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link PriceCalculator#parseQuantity} with the regex extraction it replaced, over
+ * every name in the pack-format corpus. Run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceCalculatorBenchmark {
+
+    private static final Pattern QUANTITY_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(ml|l|g|kg|pint|litre|liter)", Pattern.CASE_INSENSITIVE);
+
+    private String[] corpus;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (InputStream in = PriceCalculatorBenchmark.class.getResourceAsStream("/quantity-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    texts.add(line.substring(0, line.indexOf('\t')));
+                }
+            }
+        }
+        corpus = texts.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(PriceCalculator.parseQuantity(text, null));
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(legacyExtract(text, null));
+        }
+    }
+
+    /**
+     * The regex {@code extractQuantity} this scanner replaced.
+     */
+    private static Double legacyExtract(String productName, String size) {
+        String text = (productName + " " + (size != null ? size : "")).toLowerCase();
+
+        Matcher matcher = QUANTITY_PATTERN.matcher(text);
+        if (matcher.find()) {
+            double value = Double.parseDouble(matcher.group(1));
+            String unit = matcher.group(2).toLowerCase();
+
+            return switch (unit) {
+                case "kg" -> value * 1000;
+                case "l", "litre", "liter" -> value * 1000;
+                case "pint" -> value * 568.26;
+                default -> value;
+            };
+        }
+
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceCalculatorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
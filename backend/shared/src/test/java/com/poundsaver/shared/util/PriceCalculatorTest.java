@@ -0,0 +1,94 @@
+package com.poundsaver.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceCalculatorTest {
+
+    @Test
+    void parsesPackFormatCorpus() throws IOException {
+        List<String> mismatches = new ArrayList<>();
+        int rows = 0;
+        try (InputStream in = PriceCalculatorTest.class.getResourceAsStream("/quantity-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                rows++;
+
+                PriceCalculator.Quantity parsed = PriceCalculator.parseQuantity(columns[0]);
+                String expected = columns[1] + " x" + columns[2] + " " + columns[3];
+                String actual = parsed.isKnown()
+                        ? format(parsed.total()) + " x" + parsed.packs() + " " + parsed.unit()
+                        : "- x" + parsed.packs() + " -";
+                if (!expected.equals(actual)) {
+                    mismatches.add("line " + number + " '" + columns[0] + "': expected " + expected + ", got " + actual);
+                }
+            }
+        }
+        assertTrue(rows > 40, "corpus has only " + rows + " rows");
+        assertEquals(List.of(), mismatches);
+    }
+
+    @Test
+    void sizeFieldTakesPrecedenceOverName() {
+        PriceCalculator.Quantity quantity = PriceCalculator.parseQuantity("Milk 2 Pints", "1L");
+        assertEquals(1000, quantity.total(), 0);
+        assertEquals(1136.52, PriceCalculator.parseQuantity("Milk 2 Pints", "").total(), 0.001);
+    }
+
+    @Test
+    void pricePerUnitIsPerGramOrMillilitre() {
+        assertEquals(new BigDecimal("0.0020"), PriceCalculator.calculatePricePerUnit(new BigDecimal("1.00"), "Rice", "500g"));
+        assertEquals(new BigDecimal("0.0013"), PriceCalculator.calculatePricePerUnit(new BigDecimal("1.50"), "Milk 2 Pints", null));
+        assertEquals(new BigDecimal("2.50"), PriceCalculator.calculatePricePerUnit(new BigDecimal("2.50"), "Eggs 6 Pack", null));
+        assertEquals(BigDecimal.ZERO, PriceCalculator.calculatePricePerUnit(null, "Rice", "500g"));
+        assertNull(PriceCalculator.extractQuantity("Kitchen Roll 100 sheets", null));
+        assertEquals(2000, PriceCalculator.extractQuantity("Coca-Cola 4 x 500ml", null), 0);
+    }
+
+    @Test
+    void normalizesUnitWords() {
+        assertEquals("per 100g", PriceCalculator.normalizeUnit("KG"));
+        assertEquals("per litre", PriceCalculator.normalizeUnit("ml"));
+        assertEquals("per pint", PriceCalculator.normalizeUnit("pint"));
+        assertEquals("per item", PriceCalculator.normalizeUnit("per unit"));
+        assertEquals("per item", PriceCalculator.normalizeUnit(null));
+    }
+
+    @Test
+    void pricePerDisplayUnitMatchesDisplayUnit() {
+        PriceCalculator.Quantity beans = PriceCalculator.parseQuantity("Heinz Beans 4x415g");
+        assertEquals(new BigDecimal("0.1807"), PriceCalculator.pricePerDisplayUnit(new BigDecimal("3.00"), beans));
+        assertEquals("per 100g", PriceCalculator.displayUnit(beans));
+
+        PriceCalculator.Quantity milk = PriceCalculator.parseQuantity("Whole Milk 4 Pints");
+        assertEquals(new BigDecimal("0.6159"), PriceCalculator.pricePerDisplayUnit(new BigDecimal("1.40"), milk));
+        assertEquals("per litre", PriceCalculator.displayUnit(milk));
+
+        assertEquals(new BigDecimal("0.99"), PriceCalculator.pricePerDisplayUnit(new BigDecimal("0.99"), PriceCalculator.Quantity.NONE));
+        assertEquals("per item", PriceCalculator.displayUnit(PriceCalculator.Quantity.NONE));
+    }
+
+    private static String format(double value) {
+        return new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.poundsaver.shared.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PriceParser} with the {@code replaceAll("[^0-9.]", "")} cleanup the
+ * strategies used before it, over every string in the golden price corpus. Run {@link #main}
+ * from the test classpath; add {@code -prof gc} through the options to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceParserBenchmark {
+
+    private String[] corpus;
+
+    @Setup
+    public void loadCorpus() throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (InputStream in = PriceParserBenchmark.class.getResourceAsStream("/price-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    texts.add(line.substring(0, line.indexOf('\t')));
+                }
+            }
+        }
+        corpus = texts.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(PriceParser.parsePence(text));
+        }
+    }
+
+    @Benchmark
+    public void regexCleanup(Blackhole blackhole) {
+        for (String text : corpus) {
+            blackhole.consume(legacyParse(text));
+        }
+    }
+
+    /**
+     * The per-strategy {@code parsePrice} helper this parser replaced.
+     */
+    private static BigDecimal legacyParse(String priceText) {
+        if (priceText == null || priceText.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(priceText.replaceAll("[^0-9.]", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceParserBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.poundsaver.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceParserTest {
+
+    @Test
+    void parsesGoldenCorpus() throws IOException {
+        List<String> mismatches = new ArrayList<>();
+        int rows = 0;
+        try (InputStream in = PriceParserTest.class.getResourceAsStream("/price-corpus.tsv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                long pence = columns[1].equals("-") ? PriceParser.NO_PRICE : Long.parseLong(columns[1]);
+                int multibuy = Integer.parseInt(columns[2]);
+                rows++;
+
+                long parsed = PriceParser.parsePence(columns[0]);
+                int quantity = PriceParser.multibuyQuantity(columns[0]);
+                if (parsed != pence || quantity != multibuy) {
+                    mismatches.add("line " + number + " '" + columns[0] + "': expected " + pence + "p x" + multibuy
+                            + ", got " + parsed + "p x" + quantity);
+                }
+            }
+        }
+        assertTrue(rows > 100, "corpus has only " + rows + " rows");
+        assertEquals(List.of(), mismatches);
+    }
+
+    @Test
+    void pointAfterPoundSignStartsThePence() {
+        assertEquals(99, PriceParser.parsePence("£.99"));
+        assertEquals(5, PriceParser.parsePence("£.05"));
+        assertEquals(PriceParser.NO_PRICE, PriceParser.parsePence("£."));
+    }
+
+    @Test
+    void convertsToPounds() {
+        assertEquals(new BigDecimal("1.50"), PriceParser.parsePounds("£1.50"));
+        assertEquals(new BigDecimal("0.85"), PriceParser.parsePounds("85p"));
+        assertNull(PriceParser.parsePounds("Clubcard Price"));
+        assertNull(PriceParser.parsePounds(null));
+    }
+}